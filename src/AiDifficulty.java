@@ -0,0 +1,41 @@
+/**
+ * How good an AI player is. Each level is a search budget per decision rather than its own set of rules: the easiest level doesn't search at all
+ * and plays the random baseline, and the others pick letters and plan their turns with more time and more nodes the higher they go.
+ * Everything else, like how many mistakes a phrase guess can have, is the same at every level.
+ */
+public enum AiDifficulty {
+	EASY("Easy", SearchBudget.NONE),
+	MEDIUM("Medium", new SearchBudget(5, 500)),
+	HARD("Hard", new SearchBudget(20, 5_000)),
+	EXPERT("Expert", new SearchBudget(50, 50_000));
+	
+	/**
+	 * The name shown to the player
+	 */
+	public final String displayName;
+	
+	/**
+	 * How much work the AI can do for each decision
+	 */
+	public final SearchBudget budget;
+	
+	/**
+	 * Constructs a new AiDifficulty
+	 * @param displayName The name shown to the player
+	 * @param budget How much work the AI can do for each decision
+	 */
+	AiDifficulty(String displayName, SearchBudget budget) {
+		this.displayName = displayName;
+		this.budget = budget;
+	}
+	
+	/**
+	 * Sets an AI player up to play at this level
+	 * @param player The player
+	 */
+	public void applyTo(AiPlayer player) {
+		player.budget = budget;
+		player.smart = budget.allowsSearch();
+		player.plansTurns = budget.allowsSearch();
+	}
+}
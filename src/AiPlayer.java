@@ -1,18 +1,53 @@
-import java.util.ArrayList;
+import java.util.SplittableRandom;
 
 /**
  * A class representing a local AI player. All function documentation can be found in <code>Player</code>
  */
 public class AiPlayer extends Player {
 	/**
-	 * A list of possible consonants
+	 * Whether the AI picks the letter that tells it the most about the phrase instead of a random one
 	 */
-	char[] consonants = "bcdfghjklmnpqrstvwxyz".toCharArray();
+	boolean smart = false;
+	
+	/**
+	 * Whether the AI decides between spinning, buying a vowel and solving by playing out the rest of its turn lots of times instead of with fixed rules
+	 */
+	boolean plansTurns = false;
+	
+	/**
+	 * How much work a smart or planning AI can do for each decision
+	 */
+	SearchBudget budget = new SearchBudget(50, 50_000);
+	
+	/**
+	 * How many revealed letters a phrase guess can disagree with. Lets the AI make mistakes sometimes.
+	 */
+	int mistakesAllowed = 1;
+	
+	/**
+	 * Whether the AI keeps quiet instead of printing what it's doing, for games nobody's watching
+	 */
+	boolean quiet = false;
+	
+	/**
+	 * The game the AI is playing in, for the phrases, the wheel and the random object
+	 */
+	GameEngine game;
+	
+	/**
+	 * The random object every planner's rollouts are split off from. Seeded from the game's random object, so a seeded game plans the same way every time.
+	 */
+	SplittableRandom planningRandom;
 	
 	/**
 	 * The last known phrase
 	 */
-	String lastKnownPhrase;
+	CharSequence lastKnownPhrase;
+	
+	/**
+	 * The phrases that could still be the answer this round. Made again when a new round starts.
+	 */
+	CandidateSet candidates;
 	
 	/**
 	 * The last character that was guessed
@@ -47,14 +82,41 @@ public class AiPlayer extends Player {
 		this.name = name;
 	}
 	
+	/**
+	 * Constructs a new AI Player at a difficulty level
+	 * @param name The player's name
+	 * @param difficulty How good the player is
+	 */
+	public AiPlayer(String name, AiDifficulty difficulty) {
+		this.name = name;
+		difficulty.applyTo(this);
+	}
+	
+	@Override
+	void joinGame(GameEngine game) {
+		this.game = game;
+		candidates = null; // The candidates were for the last game's phrases
+		if (plansTurns) { // Only planners take a number, so games without them use the same random numbers they always did
+			planningRandom = new SplittableRandom(game.r.nextLong());
+		}
+	}
+	
 	@Override
-	GuessChoice getGuessChoice(String knownPhrase, ArrayList<Character> guesses) {
+	GuessChoice getGuessChoice(CharSequence knownPhrase, GuessSet guesses) {
 		lastKnownPhrase = knownPhrase;
 		bonusRound = false;
 		
+		if (plansTurns) { // Play the turn out and go with whatever did best
+			TurnPlanner planner = new TurnPlanner(game.wheel, game.phrases, narrowCandidates(knownPhrase, guesses).toArray(), money, guesses, !smart, planningRandom.split());
+			GuessChoice choice = planner.choose(budget);
+			if (choice != null) {
+				return choice;
+			}
+		}
+		
 		if (guesses.size() < 4 && money > 500) { // Some decent but not too good AI logic
 			return GuessChoice.BUYVOWEL;
-		} else if (guesses.size() > 16 && !guesses.containsAll(Main.vowels)) {
+		} else if ((guesses.size() > 16 && !guesses.containsAll(GuessSet.VOWELS)) || guesses.remaining(GuessSet.LETTERS) == 0) { // There's nothing left to guess once every letter is gone
 			return GuessChoice.GUESSPHRASE;
 		} else {
 			return GuessChoice.GUESSLETTER;
@@ -62,130 +124,153 @@ public class AiPlayer extends Player {
 	}
 	
 	@Override
-	char getLetterGuess(ArrayList<Character> guesses) {
-		if (!bonusRound || lastKnownVowels != 0) { // Pick a random consonant
-			while (true) {
-				int guessIndex = Main.r.nextInt(consonants.length);
-				if (!guesses.contains(consonants[guessIndex])) {
-					return lastGuess = consonants[guessIndex];
-				}
+	char getLetterGuess(GuessSet guesses) {
+		int letters;
+		if ((!bonusRound || lastKnownVowels != 0) && guesses.remaining(GuessSet.CONSONANTS) != 0) { // Pick a consonant
+			letters = GuessSet.CONSONANTS;
+		} else { // Pick a vowel (or any letter if the vowels are gone too)
+			letters = guesses.remaining(GuessSet.VOWELS) != 0 ? GuessSet.VOWELS : GuessSet.LETTERS;
+		}
+		
+		if (smart && isOpening(guesses) && game.openingBook != null) { // The best first letter was worked out ahead of time
+			char opening = game.openingBook.consonant(lastKnownPhrase);
+			if ((GuessSet.bit(opening) & letters & ~guesses.bits()) != 0) {
+				return lastGuess = opening;
 			}
-		} else { // Pick a random vowel
-			while (true) {
-				int guessIndex = Main.r.nextInt(Main.vowels.size());
-				if (!guesses.contains(Main.vowels.get(guessIndex))) {
-					return lastGuess = Main.vowels.get(guessIndex);
-				}
+		}
+		
+		if (smart) {
+			char best = LetterChooser.choose(game.phrases, narrowCandidates(lastKnownPhrase, guesses).toArray(), letters & ~guesses.bits(), budget);
+			if (best != 0) {
+				return lastGuess = best;
 			}
 		}
+		return lastGuess = pickRemaining(guesses, letters); // Pick randomly
 	}
 	
 	@Override
-	char getVowelGuess(ArrayList<Character> guesses) {
-		while (true) { // Pick a random vowel
-			int guessIndex = Main.r.nextInt(Main.vowels.size());
-			if (!guesses.contains(Main.vowels.get(guessIndex))) {
-				return lastGuess = Main.vowels.get(guessIndex);
+	char getVowelGuess(GuessSet guesses) {
+		if (smart && isOpening(guesses) && game.openingBook != null) { // Buy the best first vowel if nothing's been guessed yet
+			char opening = game.openingBook.vowel(lastKnownPhrase);
+			if ((GuessSet.bit(opening) & GuessSet.VOWELS) != 0) {
+				return lastGuess = opening;
 			}
 		}
+		return lastGuess = pickRemaining(guesses, GuessSet.VOWELS); // Pick a random vowel
+	}
+	
+	/**
+	 * Checks if it's the start of a regular round, when the opening book can be used
+	 * @param guesses Every guess made so far this round
+	 * @return Whether no letters have been guessed yet and it isn't the bonus round
+	 */
+	boolean isOpening(GuessSet guesses) {
+		return !bonusRound && (guesses.bits() & GuessSet.LETTERS) == 0;
+	}
+	
+	/**
+	 * Picks a random letter that hasn't been guessed yet
+	 * @param guesses The player's guessed letters
+	 * @param mask The letters to pick from, like <code>GuessSet.CONSONANTS</code>
+	 * @return The letter
+	 */
+	char pickRemaining(GuessSet guesses, int mask) {
+		return guesses.remainingLetter(mask, game.r.nextInt(guesses.remaining(mask)));
 	}
 	
 	@Override
-	String getPhraseGuess(ArrayList<Character> guesses) {
-		ArrayList<String> possibleGuesses = new ArrayList<>(); // Go through all phrases and pick the ones that work with the current known phrase
-		for (String bird : Main.phrases) {
-			if (guessesCompatible(lastKnownPhrase, bird)) {
-				possibleGuesses.add(bird);
-			}
-		}
+	String getPhraseGuess(GuessSet guesses) {
+		int[] possibleGuesses = narrowCandidates(lastKnownPhrase, guesses).toArray(); // Get the phrases that work with the current known phrase
 		
-		if (possibleGuesses.size() != 0) { // Pick randomly from the valid guesses
-			return lastPhraseGuess = possibleGuesses.get(Main.r.nextInt(possibleGuesses.size()));
+		if (possibleGuesses.length != 0) { // Pick randomly from the valid guesses
+			return lastPhraseGuess = game.phrases.text(possibleGuesses[game.r.nextInt(possibleGuesses.length)]);
 		} else {
 			return lastPhraseGuess = "Why are we here just to suffer"; // This should never happen but if it does it's obvious
 		}
 	}
 	
 	/**
-	 * Checks if a guess is compatible with the phrase
-	 * @param guess The possible guess
-	 * @param phrase The known phrase
-	 * @return Whether the guess is compatible (true) or not (false)
+	 * Narrows the candidates down with everything that's been revealed or guessed since last time, starting again if it's a new round
+	 * @param knownPhrase The known phrase
+	 * @param guesses Every guess made so far this round
+	 * @return The candidates
 	 */
-	boolean guessesCompatible(String guess, String phrase) {
-		if (guess.length() != phrase.length()) {
-			return false;
+	CandidateSet narrowCandidates(CharSequence knownPhrase, GuessSet guesses) {
+		if (candidates == null || !candidates.follows(knownPhrase)) {
+			candidates = new CandidateSet(game.index, knownPhrase, mistakesAllowed, guesses);
 		}
-		
-		int mistakes = 0;
-		
-		for (int i = 0; i < guess.length(); i++) {
-			char guessChar = guess.charAt(i), phraseChar = phrase.charAt(i);
-			if (guessChar != '☐' && guessChar != phraseChar) { // Let the AI make mistakes sometimes
-				mistakes++;
-			}
-			if(mistakes > 1) {
-				return false;
-			}
-		}
-		
-		return true;
+		candidates.update(guesses);
+		return candidates;
 	}
 	
 	@Override
 	boolean prepareToSpin() {
-		System.out.println(name + " has $" + money);
+		if (!quiet) {
+			System.out.println(name + " has $" + money);
+		}
 		return false; // Don't block or display the entire spin for AI opponents.
 	}
 	
 	@Override
 	void resolveBuyVowel(int occurrences) { // Display stuff for the user
-		System.out.println(name +" " + (bonusRound ? "guessed" : "bought") + " the vowel " + lastGuess);
-		System.out.println(lastGuess + " was in the word " + occurrences + " times.");
+		if (!quiet) {
+			System.out.println(name +" " + (bonusRound ? "guessed" : "bought") + " the vowel " + lastGuess);
+			System.out.println(lastGuess + " was in the word " + occurrences + " times.");
+		}
 	}
 	
 	@Override
 	void resolveGuessLetter(int occurrences) {
-		System.out.println(name + " guessed the letter " + lastGuess);
-		System.out.println(lastGuess + " was in the word " + occurrences + " times.");
+		if (!quiet) {
+			System.out.println(name + " guessed the letter " + lastGuess);
+			System.out.println(lastGuess + " was in the word " + occurrences + " times.");
+		}
 	}
 	
 	@Override
 	void resolveGuessPhrase(boolean correct) {
-		System.out.println(name + " guessed the phrase " + lastPhraseGuess);
-		System.out.println("They were " + (correct ? "right" : "wrong"));
+		if (!quiet) {
+			System.out.println(name + " guessed the phrase " + lastPhraseGuess);
+			System.out.println("They were " + (correct ? "right" : "wrong"));
+		}
 	}
 	
 	@Override
 	void onTurnStart() {
-		System.out.println(Main.BRed + Main.FWhite + name + "'s turn starts" + Main.Reset);
+		if (!quiet) {
+			System.out.println(Main.BRed + Main.FWhite + name + "'s turn starts" + Main.Reset);
+		}
 	}
 	
 	@Override
 	void onSpinEnded(Slice slice) {
-		System.out.println(name + " spun a " + slice.text + "!");
+		if (!quiet) {
+			System.out.println(name + " spun a " + slice.text + "!");
+		}
 	}
 	
 	@Override
 	boolean prepareBonusSpin() {
 		bonusRound = true;
-		System.out.println(name + " is now doing the bonus round!");
+		if (!quiet) {
+			System.out.println(name + " is now doing the bonus round!");
+		}
 		return false; // Don't block
 	}
 	
 	@Override
-	GuessChoice getGuessChoiceBonus(String knownPhrase, ArrayList<Character> guesses, int consonants, int vowels) {
+	GuessChoice getGuessChoiceBonus(CharSequence knownPhrase, GuessSet guesses, int consonants, int vowels) {
 		lastKnownConsonants = consonants;
 		lastKnownVowels = vowels;
 		lastKnownPhrase = knownPhrase;
 		
-		System.out.println(knownPhrase);
+		if (!quiet) {
+			System.out.println(knownPhrase);
+		}
 		if (consonants == 3 && vowels == 1) { // Only guess the phrase when all the letter guesses are used up
 			return GuessChoice.GUESSPHRASE;
 		} else {
 			return GuessChoice.GUESSLETTER;
 		}
 	}
-	
-	
 }
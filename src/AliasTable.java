@@ -0,0 +1,97 @@
+import java.util.ArrayDeque;
+import java.util.Random;
+
+/**
+ * A precomputed table for picking an index at random where each index has its own weight (Vose's alias method).
+ * Building the table takes O(n) time, and each pick after that takes O(1) time and exactly 2 random numbers.
+ */
+public final class AliasTable {
+	/**
+	 * The chance of keeping each column's own index instead of its alias
+	 */
+	final double[] probability;
+	
+	/**
+	 * The index each column falls back to
+	 */
+	final int[] alias;
+	
+	/**
+	 * Constructs a new AliasTable
+	 * @param weights The weight of each index. Weights can't be negative, and at least one has to be more than 0.
+	 */
+	public AliasTable(double[] weights) {
+		int n = weights.length;
+		probability = new double[n];
+		alias = new int[n];
+		
+		double total = 0;
+		for (double weight : weights) {
+			if (weight < 0 || Double.isNaN(weight) || Double.isInfinite(weight)) {
+				throw new IllegalArgumentException("Weights must be finite and not negative");
+			}
+			total += weight;
+		}
+		if (total <= 0) {
+			throw new IllegalArgumentException("At least one weight must be more than 0");
+		}
+		
+		// Scale the weights so they average 1, then split them into the columns that are too short and the ones that are too tall
+		double[] scaled = new double[n];
+		ArrayDeque<Integer> small = new ArrayDeque<>();
+		ArrayDeque<Integer> large = new ArrayDeque<>();
+		for (int i = 0; i < n; i++) {
+			scaled[i] = weights[i] * n / total;
+			if (scaled[i] < 1) {
+				small.add(i);
+			} else {
+				large.add(i);
+			}
+		}
+		
+		// Top up each short column with part of a tall one
+		while (!small.isEmpty() && !large.isEmpty()) {
+			int less = small.poll();
+			int more = large.poll();
+			
+			probability[less] = scaled[less];
+			alias[less] = more;
+			
+			scaled[more] = (scaled[more] + scaled[less]) - 1;
+			if (scaled[more] < 1) {
+				small.add(more);
+			} else {
+				large.add(more);
+			}
+		}
+		
+		// Whatever is left is full (or only short because of rounding errors)
+		while (!large.isEmpty()) {
+			int i = large.poll();
+			probability[i] = 1;
+			alias[i] = i;
+		}
+		while (!small.isEmpty()) {
+			int i = small.poll();
+			probability[i] = 1;
+			alias[i] = i;
+		}
+	}
+	
+	/**
+	 * Picks an index. Always takes exactly 1 <code>nextInt</code> and 1 <code>nextDouble</code> from the random object.
+	 * @param r The random object to use
+	 * @return The index that was picked
+	 */
+	public int sample(Random r) {
+		int column = r.nextInt(probability.length);
+		return r.nextDouble() < probability[column] ? column : alias[column];
+	}
+	
+	/**
+	 * @return The number of indices in the table
+	 */
+	public int size() {
+		return probability.length;
+	}
+}
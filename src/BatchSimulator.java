@@ -0,0 +1,554 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays lots of AI-only games as fast as possible and prints statistics about them, for tuning the wheel's payouts and the AI.
+ * Games run in parallel on every core. Every batch of games has its own wheels and its own random object split off from one seed,
+ * so a run with the same seed plays the same games no matter how many cores there are. That's only guaranteed for Easy AIs though:
+ * the other levels search until their budget's time limit, so a search that's cut short on a slow or busy machine can change what they do.
+ * Nothing is printed while the games run. Each batch collects its statistics as the games happen and the batches are added together at the end.
+ */
+public final class BatchSimulator {
+	/**
+	 * How many games a single task plays before it splits in two
+	 */
+	static final int CHUNK_SIZE = 512;
+	
+	/**
+	 * Runs a batch of games and prints the results
+	 * @param args The number of games, the number of players, the AI difficulty, and the seed. All of them are optional.
+	 */
+	public static void main(String[] args) {
+		long games;
+		int players;
+		AiDifficulty difficulty;
+		long seed;
+		try {
+			games = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+			players = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+			difficulty = args.length > 2 ? parseDifficulty(args[2]) : AiDifficulty.EASY;
+			seed = args.length > 3 ? Long.parseLong(args[3]) : new Random().nextLong();
+		} catch (IllegalArgumentException e) {
+			System.out.println("Usage: BatchSimulator [games] [players] [difficulty] [seed]");
+			System.out.println(e.getMessage());
+			return;
+		}
+		if (games < 1 || players < 1) {
+			System.out.println("There has to be at least 1 game and 1 player");
+			return;
+		}
+		
+		Main.readPhrasesFromFile("birds.txt");
+		
+		System.out.println("Playing " + games + " games with " + players + " " + difficulty.displayName + " AI players on "
+				+ ForkJoinPool.commonPool().getParallelism() + " threads (seed " + seed + ")");
+		long start = System.nanoTime();
+		BatchStats stats = run(games, players, difficulty, seed);
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("Played %d games in %.1fs (%.0f games/s)%n", stats.games, seconds, stats.games / seconds);
+		
+		stats.print();
+	}
+	
+	/**
+	 * Plays a batch of AI-only games in parallel
+	 * @param games How many games to play
+	 * @param players How many players are in each game
+	 * @param difficulty How good the players are
+	 * @param seed The seed every game's random object is split off from
+	 * @return The statistics of every game
+	 */
+	public static BatchStats run(long games, int players, AiDifficulty difficulty, long seed) {
+		return ForkJoinPool.commonPool().invoke(new GameBatchTask(games, players, difficulty, new SplittableRandom(seed)));
+	}
+	
+	/**
+	 * Finds a difficulty by its name
+	 * @param name The name, like "hard"
+	 * @return The difficulty
+	 * @throws IllegalArgumentException If there's no difficulty with that name
+	 */
+	static AiDifficulty parseDifficulty(String name) {
+		for (AiDifficulty difficulty : AiDifficulty.values()) {
+			if (difficulty.displayName.equalsIgnoreCase(name) || difficulty.name().equalsIgnoreCase(name)) {
+				return difficulty;
+			}
+		}
+		throw new IllegalArgumentException("There's no difficulty called " + name + ". Pick one of " + Arrays.toString(AiDifficulty.values()));
+	}
+}
+
+/**
+ * Plays a number of games, splitting into smaller tasks if there are a lot of them
+ */
+class GameBatchTask extends RecursiveTask<BatchStats> {
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * How many games to play
+	 */
+	final long games;
+	
+	/**
+	 * How many players are in each game
+	 */
+	final int players;
+	
+	/**
+	 * How good the players are
+	 */
+	final AiDifficulty difficulty;
+	
+	/**
+	 * The random object only this task uses
+	 */
+	final SplittableRandom random;
+	
+	/**
+	 * Constructs a new GameBatchTask
+	 * @param games How many games to play
+	 * @param players How many players are in each game
+	 * @param difficulty How good the players are
+	 * @param random The random object for this task
+	 */
+	GameBatchTask(long games, int players, AiDifficulty difficulty, SplittableRandom random) {
+		this.games = games;
+		this.players = players;
+		this.difficulty = difficulty;
+		this.random = random;
+	}
+	
+	@Override
+	protected BatchStats compute() {
+		if (games > BatchSimulator.CHUNK_SIZE) { // Split in two and play both halves at once
+			GameBatchTask second = new GameBatchTask(games / 2, players, difficulty, random.split());
+			second.fork();
+			BatchStats stats = new GameBatchTask(games - games / 2, players, difficulty, random).compute();
+			stats.add(second.join());
+			return stats;
+		}
+		
+		// The wheels work out their layouts the first time they're spun, so every task has its own instead of sharing them between threads
+		Wheel wheel = GameEngine.createWheel();
+		Wheel bonusWheel = GameEngine.createBonusWheel();
+		Random r = new Random(random.nextLong());
+		BatchStats stats = new BatchStats(players, bonusWheel.slices);
+		
+		for (long g = 0; g < games; g++) {
+			Player[] seats = new Player[players];
+			for (int i = 0; i < players; i++) {
+				AiPlayer player = new AiPlayer("Opponent " + (i + 1), difficulty);
+				player.quiet = true;
+				seats[i] = player;
+			}
+			
+			GameEngine game = new GameEngine(Main.phrases, Main.phraseIndex, wheel, r, seats);
+			game.bonusWheel = bonusWheel;
+			game.openingBook = Main.openingBook;
+			game.addListener(stats);
+			game.play();
+		}
+		return stats;
+	}
+}
+
+/**
+ * Statistics about a lot of games, collected as they're played. Nothing about a game is kept once it's over, so it takes the same memory for any number of games.
+ */
+class BatchStats implements GameListener {
+	/**
+	 * The width of each bar of the money histogram
+	 */
+	static final int MONEY_BUCKET = 250;
+	
+	/**
+	 * How many bars the money histogram has. The last one has everyone with more money than that.
+	 */
+	static final int MONEY_BUCKETS = 200;
+	
+	/**
+	 * The slices of the bonus wheel, in the order of the bonus statistics
+	 */
+	final Slice[] bonusSlices;
+	
+	/**
+	 * The number of games played
+	 */
+	long games = 0;
+	
+	/**
+	 * How many games each seat won outright
+	 */
+	final long[] wins;
+	
+	/**
+	 * How many games ended with more than one player tied for the most money
+	 */
+	long ties = 0;
+	
+	/**
+	 * How many regular rounds each seat solved
+	 */
+	final long[] roundsSolved;
+	
+	/**
+	 * How many times each seat played the bonus round
+	 */
+	final long[] bonusRounds;
+	
+	/**
+	 * The money each player had at the end of the regular rounds
+	 */
+	final RunningStats money = new RunningStats();
+	
+	/**
+	 * The number of players in each bar of width <code>MONEY_BUCKET</code> of money at the end of the regular rounds
+	 */
+	final long[] moneyHistogram = new long[MONEY_BUCKETS];
+	
+	/**
+	 * The number of turns in each regular round
+	 */
+	final RunningStats turnsPerRound = new RunningStats();
+	
+	/**
+	 * The number of spins in each game
+	 */
+	final RunningStats spinsPerGame = new RunningStats();
+	
+	/**
+	 * The number of spins of the regular wheel
+	 */
+	long spins = 0;
+	
+	/**
+	 * The number of those spins that landed on BANKRUPT
+	 */
+	long bankrupts = 0;
+	
+	/**
+	 * The total money lost to BANKRUPT
+	 */
+	long bankruptLosses = 0;
+	
+	/**
+	 * How many times each bonus slice was spun
+	 */
+	final long[] bonusSpins;
+	
+	/**
+	 * How many times the bonus round was solved after spinning each bonus slice
+	 */
+	final long[] bonusSolves;
+	
+	/**
+	 * The total prize money paid out for each bonus slice
+	 */
+	final long[] bonusPaid;
+	
+	/**
+	 * The seats of the game being played. The engine sorts its players by money before the bonus round, so this keeps their original order.
+	 */
+	Player[] seats;
+	
+	/**
+	 * The turns played so far in the current regular round
+	 */
+	int roundTurns;
+	
+	/**
+	 * The spins so far in the current game
+	 */
+	int gameSpins;
+	
+	/**
+	 * Whether the bonus round is being played, so its turns aren't counted
+	 */
+	boolean inBonusRound;
+	
+	/**
+	 * The bonus slice spun in the current game
+	 */
+	int bonusSlice;
+	
+	/**
+	 * What the bonus slice spun in the current game is worth
+	 */
+	int bonusValue;
+	
+	/**
+	 * Constructs a new, empty BatchStats
+	 * @param players How many players are in each game
+	 * @param bonusSlices The slices of the bonus wheel the games are played with
+	 */
+	BatchStats(int players, Slice[] bonusSlices) {
+		this.bonusSlices = bonusSlices;
+		wins = new long[players];
+		roundsSolved = new long[players];
+		bonusRounds = new long[players];
+		bonusSpins = new long[bonusSlices.length];
+		bonusSolves = new long[bonusSlices.length];
+		bonusPaid = new long[bonusSlices.length];
+	}
+	
+	@Override
+	public void onGameStart(Player[] players) {
+		seats = players.clone();
+		gameSpins = 0;
+		inBonusRound = false;
+	}
+	
+	@Override
+	public void onRoundStart(int round, CharSequence knownPhrase, Player startingPlayer) {
+		roundTurns = 0;
+	}
+	
+	@Override
+	public void onTurnStart(Player player) {
+		if (!inBonusRound) {
+			roundTurns++;
+		}
+	}
+	
+	@Override
+	public void onSpin(Player player, Slice slice) {
+		spins++;
+		gameSpins++;
+		if (slice.text.equals("BANKRUPT")) {
+			bankrupts++;
+			bankruptLosses += player.money; // The slice hasn't taken it yet
+		}
+	}
+	
+	@Override
+	public void onRoundEnd(int round, Phrase phrase, Player solver) {
+		roundsSolved[seatOf(solver)]++;
+		turnsPerRound.add(roundTurns);
+	}
+	
+	@Override
+	public void onBonusRoundStart(Player player, Player[] players) {
+		inBonusRound = true;
+		bonusRounds[seatOf(player)]++;
+		for (Player p : players) {
+			money.add(p.money);
+			moneyHistogram[Math.min(Math.max(p.money, 0) / MONEY_BUCKET, MONEY_BUCKETS - 1)]++;
+		}
+	}
+	
+	@Override
+	public void onBonusPrize(Player player, Slice prize, int value) {
+		bonusSlice = 0;
+		while (bonusSlices[bonusSlice] != prize) {
+			bonusSlice++;
+		}
+		bonusValue = value;
+	}
+	
+	@Override
+	public void onBonusRoundEnd(Player player, Phrase phrase, boolean solved) {
+		bonusSpins[bonusSlice]++;
+		if (solved) {
+			bonusSolves[bonusSlice]++;
+			bonusPaid[bonusSlice] += bonusValue;
+		}
+		
+		// That's the end of the game, so work out who won
+		int winner = 0;
+		boolean tied = false;
+		for (int i = 1; i < seats.length; i++) {
+			if (seats[i].money > seats[winner].money) {
+				winner = i;
+				tied = false;
+			} else if (seats[i].money == seats[winner].money) {
+				tied = true;
+			}
+		}
+		if (tied) {
+			ties++;
+		} else {
+			wins[winner]++;
+		}
+		spinsPerGame.add(gameSpins);
+		games++;
+	}
+	
+	/**
+	 * Finds which seat a player is in in the current game
+	 * @param player The player
+	 * @return The index of their seat
+	 */
+	int seatOf(Player player) {
+		for (int i = 0; i < seats.length; i++) {
+			if (seats[i] == player) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException(player.name + " isn't in this game");
+	}
+	
+	/**
+	 * Adds the statistics of other games into these ones
+	 * @param other The statistics to add
+	 */
+	void add(BatchStats other) {
+		games += other.games;
+		ties += other.ties;
+		spins += other.spins;
+		bankrupts += other.bankrupts;
+		bankruptLosses += other.bankruptLosses;
+		addAll(wins, other.wins);
+		addAll(roundsSolved, other.roundsSolved);
+		addAll(bonusRounds, other.bonusRounds);
+		addAll(moneyHistogram, other.moneyHistogram);
+		addAll(bonusSpins, other.bonusSpins);
+		addAll(bonusSolves, other.bonusSolves);
+		addAll(bonusPaid, other.bonusPaid);
+		money.add(other.money);
+		turnsPerRound.add(other.turnsPerRound);
+		spinsPerGame.add(other.spinsPerGame);
+	}
+	
+	/**
+	 * Adds every count of one array into another
+	 * @param to The counts to add to
+	 * @param from The counts to add
+	 */
+	static void addAll(long[] to, long[] from) {
+		for (int i = 0; i < to.length; i++) {
+			to[i] += from[i];
+		}
+	}
+	
+	/**
+	 * Finds roughly where a percentile of the money histogram is
+	 * @param percentile The percentile, between 0 and 100
+	 * @return The bottom of the bar it's in
+	 */
+	int moneyPercentile(double percentile) {
+		long target = (long) Math.ceil(money.count * percentile / 100);
+		long seen = 0;
+		for (int i = 0; i < moneyHistogram.length; i++) {
+			seen += moneyHistogram[i];
+			if (seen >= target) {
+				return i * MONEY_BUCKET;
+			}
+		}
+		return (moneyHistogram.length - 1) * MONEY_BUCKET;
+	}
+	
+	/**
+	 * Prints the statistics to the console
+	 */
+	void print() {
+		System.out.println("Rounds per game: 3 regular rounds and 1 bonus round");
+		System.out.printf("Turns per regular round: %.2f (sd %.2f, min %.0f, max %.0f)%n", turnsPerRound.mean, turnsPerRound.standardDeviation(), turnsPerRound.min, turnsPerRound.max);
+		System.out.printf("Spins per game: %.2f (sd %.2f)%n", spinsPerGame.mean, spinsPerGame.standardDeviation());
+		if (spinsPerGame.min == spinsPerGame.max) { // Easy AIs spin until 17 characters have been guessed whatever happens, so every round takes 13 spins
+			System.out.println("  Every game had the same number of spins. The AI's rules decide when it stops spinning, not the wheel.");
+		}
+		
+		System.out.println("Seats:");
+		for (int i = 0; i < wins.length; i++) {
+			System.out.printf("  Seat %d: won %.2f%% of games, solved %.2f%% of rounds, played %.2f%% of bonus rounds%n", i + 1,
+					percent(wins[i], games), percent(roundsSolved[i], games * 3), percent(bonusRounds[i], games));
+		}
+		System.out.printf("  Ties: %.2f%% of games%n", percent(ties, games));
+		
+		System.out.println("Money after the regular rounds:");
+		System.out.printf("  Mean $%.0f (sd $%.0f, max $%.0f)%n", money.mean, money.standardDeviation(), money.max);
+		System.out.printf("  Percentiles: 10th $%d, 25th $%d, median $%d, 75th $%d, 90th $%d, 99th $%d%n", moneyPercentile(10), moneyPercentile(25),
+				moneyPercentile(50), moneyPercentile(75), moneyPercentile(90), moneyPercentile(99));
+		
+		System.out.printf("BANKRUPT: %.2f%% of spins, %.3f per game, $%.0f lost per BANKRUPT%n", percent(bankrupts, spins), bankrupts / (double) games,
+				bankrupts == 0 ? 0 : bankruptLosses / (double) bankrupts);
+		
+		System.out.println("Bonus round by slice:");
+		for (int i = 0; i < bonusSlices.length; i++) {
+			System.out.printf("  %2d %-4s spun %.2f%% of the time, solved %.2f%% of those, $%.0f paid per game%n", i + 1, bonusSlices[i].text.trim(),
+					percent(bonusSpins[i], games), percent(bonusSolves[i], bonusSpins[i]), bonusPaid[i] / (double) games);
+		}
+		long solves = Arrays.stream(bonusSolves).sum();
+		long paid = Arrays.stream(bonusPaid).sum();
+		System.out.printf("  Total: solved %.2f%% of bonus rounds, $%.0f paid per game%n", percent(solves, games), paid / (double) games);
+	}
+	
+	/**
+	 * @param count A count
+	 * @param total What it's out of
+	 * @return The count as a percentage of the total, or 0 if the total is 0
+	 */
+	static double percent(long count, long total) {
+		return total == 0 ? 0 : 100.0 * count / total;
+	}
+}
+
+/**
+ * The count, mean, spread and range of a stream of numbers, without keeping the numbers (Welford's method)
+ */
+class RunningStats {
+	/**
+	 * How many numbers have been added
+	 */
+	long count = 0;
+	
+	/**
+	 * The mean of the numbers
+	 */
+	double mean = 0;
+	
+	/**
+	 * The sum of the squared differences from the mean
+	 */
+	double squares = 0;
+	
+	/**
+	 * The smallest number
+	 */
+	double min = Double.POSITIVE_INFINITY;
+	
+	/**
+	 * The biggest number
+	 */
+	double max = Double.NEGATIVE_INFINITY;
+	
+	/**
+	 * Adds a number
+	 * @param x The number
+	 */
+	void add(double x) {
+		count++;
+		double delta = x - mean;
+		mean += delta / count;
+		squares += delta * (x - mean);
+		min = Math.min(min, x);
+		max = Math.max(max, x);
+	}
+	
+	/**
+	 * Adds every number from other stats into these ones
+	 * @param other The stats to add
+	 */
+	void add(RunningStats other) {
+		if (other.count == 0) {
+			return;
+		}
+		long total = count + other.count;
+		double delta = other.mean - mean;
+		mean += delta * other.count / total;
+		squares += other.squares + delta * delta * count * other.count / total;
+		count = total;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+	}
+	
+	/**
+	 * @return The standard deviation of the numbers, or 0 if there aren't at least 2
+	 */
+	double standardDeviation() {
+		return count < 2 ? 0 : Math.sqrt(squares / (count - 1));
+	}
+}
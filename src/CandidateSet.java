@@ -0,0 +1,226 @@
+import java.util.Arrays;
+
+/**
+ * The phrases that could still be the answer in the current round, as far as one player can tell.
+ * It starts from the phrases that fit whatever was already revealed when it was made, found in one walk of the index's trie.
+ * It follows the known phrase of a round and only ever gets smaller: each newly revealed letter ANDs in one bitset from the <code>PhraseIndex</code>,
+ * and each letter that was guessed but isn't in the phrase knocks out every candidate containing it. Words of the bitset that run out of candidates
+ * are skipped from then on, so it gets cheaper to update as the round goes on.
+ */
+public final class CandidateSet {
+	/**
+	 * The index the candidates come from
+	 */
+	final PhraseIndex index;
+	
+	/**
+	 * The known phrase this set follows. It's expected to only ever gain letters, like a <code>RevealState</code>.
+	 */
+	final CharSequence knownPhrase;
+	
+	/**
+	 * How many revealed letters a candidate can disagree with
+	 */
+	final int mistakesAllowed;
+	
+	/**
+	 * The phrases with the same length as the known phrase, in order. Bit <code>k</code> of the sets below is phrase <code>bucket[k]</code>.
+	 */
+	final int[] bucket;
+	
+	/**
+	 * The number of longs in each set
+	 */
+	final int words;
+	
+	/**
+	 * The index's bitsets for phrases of this length, or null if there aren't any phrases of this length
+	 */
+	final long[] letterBits;
+	
+	/**
+	 * For each number of mistakes <code>m</code> up to <code>mistakesAllowed</code>, the set of candidates with at most <code>m</code> mistakes so far.
+	 * Set <code>m</code> starts at <code>m * words</code>. The last set is the candidates.
+	 */
+	final long[] withMistakes;
+	
+	/**
+	 * The words of the candidate set that still have candidates in them. Only the first <code>liveWords</code> are used.
+	 */
+	final int[] live;
+	
+	/**
+	 * The number of words in <code>live</code>
+	 */
+	int liveWords;
+	
+	/**
+	 * Which positions of the known phrase have already been narrowed by
+	 */
+	final boolean[] applied;
+	
+	/**
+	 * The <code>GuessSet</code> bits of the letters known not to be in the phrase
+	 */
+	int absentLetters = 0;
+	
+	/**
+	 * Constructs a new CandidateSet with every phrase that fits the known phrase so far in it. Call <code>update</code> to narrow it down as the round goes on.
+	 * @param index The index to take candidates from
+	 * @param knownPhrase The known phrase to follow
+	 * @param mistakesAllowed How many revealed letters a candidate can disagree with
+	 * @param guesses Every guess made so far this round. The letters that aren't in the phrase cut the trie walk short.
+	 */
+	public CandidateSet(PhraseIndex index, CharSequence knownPhrase, int mistakesAllowed, GuessSet guesses) {
+		this.index = index;
+		this.knownPhrase = knownPhrase;
+		this.mistakesAllowed = mistakesAllowed;
+		
+		int length = knownPhrase.length();
+		bucket = length < index.lengthBuckets.length && index.lengthBuckets[length] != null ? index.lengthBuckets[length] : new int[0];
+		words = PhraseIndex.words(bucket.length);
+		letterBits = bucket.length != 0 ? index.letterBits(length) : null;
+		
+		int shownLetters = 0;
+		for (int p = 0; p < length; p++) {
+			char c = knownPhrase.charAt(p);
+			if (c != RevealState.HIDDEN) {
+				shownLetters |= GuessSet.bit(c);
+			}
+		}
+		absentLetters = guesses.bits() & GuessSet.LETTERS & ~shownLetters;
+		
+		long[] seeded = new long[(mistakesAllowed + 1) * words];
+		index.trie().visitMatches(knownPhrase, mistakesAllowed, absentLetters, (phrase, mistakes) -> { // Seed the sets with everything the trie finds
+			int k = Arrays.binarySearch(bucket, phrase);
+			for (int m = mistakes; m <= mistakesAllowed; m++) {
+				seeded[m * words + (k >>> 6)] |= 1L << k;
+			}
+		});
+		withMistakes = seeded;
+		
+		applied = new boolean[length];
+		for (int p = 0; p < length; p++) { // The trie has already looked at everything that's revealed
+			applied[p] = knownPhrase.charAt(p) != RevealState.HIDDEN;
+		}
+		
+		live = new int[words];
+		for (int w = 0; w < words; w++) {
+			live[w] = w;
+		}
+		liveWords = words;
+		dropEmptyWords();
+	}
+	
+	/**
+	 * Checks if this set is following a known phrase
+	 * @param knownPhrase The known phrase
+	 * @return Whether it's the one this set was made for
+	 */
+	public boolean follows(CharSequence knownPhrase) {
+		return this.knownPhrase == knownPhrase;
+	}
+	
+	/**
+	 * Narrows the candidates down with any letters that have been revealed or guessed since the last update
+	 * @param guesses Every guess made so far this round
+	 */
+	public void update(GuessSet guesses) {
+		int shownLetters = 0;
+		for (int p = 0; p < applied.length; p++) {
+			char c = knownPhrase.charAt(p);
+			if (c == RevealState.HIDDEN) {
+				continue;
+			}
+			shownLetters |= GuessSet.bit(c);
+			if (!applied[p]) {
+				applied[p] = true;
+				narrow(p, c);
+			}
+		}
+		
+		int newlyAbsent = guesses.bits() & GuessSet.LETTERS & ~shownLetters & ~absentLetters;
+		if (newlyAbsent != 0) {
+			absentLetters |= newlyAbsent;
+			eliminate(newlyAbsent);
+		}
+	}
+	
+	/**
+	 * Narrows the candidates down by a revealed character
+	 * @param position The position of the character
+	 * @param c The character
+	 */
+	void narrow(int position, char c) {
+		int offset = (position * PhraseIndex.CLASSES + PhraseIndex.letterClass(c)) * words;
+		for (int i = 0; i < liveWords; i++) {
+			int w = live[i];
+			long fits = letterBits[offset + w];
+			for (int m = mistakesAllowed; m > 0; m--) { // A phrase that doesn't fit here uses up one more mistake
+				withMistakes[m * words + w] = (withMistakes[m * words + w] & fits) | withMistakes[(m - 1) * words + w];
+			}
+			withMistakes[w] &= fits;
+		}
+		dropEmptyWords();
+	}
+	
+	/**
+	 * Knocks out every candidate that contains one of some letters
+	 * @param letters The <code>GuessSet</code> bits of the letters
+	 */
+	void eliminate(int letters) {
+		for (int i = 0; i < liveWords; i++) {
+			int w = live[i];
+			long candidates = withMistakes[mistakesAllowed * words + w];
+			long out = 0;
+			while (candidates != 0) {
+				int k = Long.numberOfTrailingZeros(candidates);
+				candidates &= candidates - 1;
+				if ((index.phrases.letterMask(bucket[(w << 6) + k]) & letters) != 0) {
+					out |= 1L << k;
+				}
+			}
+			for (int m = 0; m <= mistakesAllowed; m++) {
+				withMistakes[m * words + w] &= ~out;
+			}
+		}
+		dropEmptyWords();
+	}
+	
+	/**
+	 * Stops looking at the words that have run out of candidates
+	 */
+	void dropEmptyWords() {
+		int kept = 0;
+		for (int i = 0; i < liveWords; i++) {
+			if (withMistakes[mistakesAllowed * words + live[i]] != 0) {
+				live[kept++] = live[i];
+			}
+		}
+		liveWords = kept;
+	}
+	
+	/**
+	 * Gets the candidates. Letters are indexed without case, so each one is checked against the real characters of the known phrase first.
+	 * @return The indices of the phrases that could be the answer, in order
+	 */
+	public int[] toArray() {
+		int[] found = new int[16];
+		int count = 0;
+		for (int i = 0; i < liveWords; i++) {
+			int w = live[i];
+			long candidates = withMistakes[mistakesAllowed * words + w];
+			while (candidates != 0) {
+				int phrase = bucket[(w << 6) + Long.numberOfTrailingZeros(candidates)];
+				candidates &= candidates - 1;
+				if (index.fits(knownPhrase, phrase, mistakesAllowed)) {
+					if (count == found.length) {
+						found = Arrays.copyOf(found, count * 2);
+					}
+					found[count++] = phrase;
+				}
+			}
+		}
+		return Arrays.copyOf(found, count);
+	}
+}
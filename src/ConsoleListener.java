@@ -0,0 +1,26 @@
+/**
+ * Prints the parts of a game that aren't any one player's business to the console. The players print their own turns.
+ */
+public class ConsoleListener implements GameListener {
+	@Override
+	public void onGameStart(Player[] players) {
+		System.out.println("How well do you know Ontario's birds? Let's find out!");
+	}
+	
+	@Override
+	public void onRoundStart(int round, CharSequence knownPhrase, Player startingPlayer) {
+		System.out.println("Press enter to begin round " + round);
+		System.out.println(startingPlayer.name + " starts first!"); // Let the user know who goes first
+	}
+	
+	@Override
+	public void onBonusRoundStart(Player player, Player[] players) {
+		Main.displayLeaderboard(players);
+	}
+	
+	@Override
+	public void onBonusPrize(Player player, Slice prize, int value) {
+		System.out.println(player.name + " spun " + prize);
+		System.out.println("This slice is worth $" + value + "!");
+	}
+}
@@ -0,0 +1,365 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Runs a game of Wheel of Bird: 3 regular rounds, then a bonus round for whoever has the most money.
+ * The engine doesn't print or read anything itself. Everything that happens is sent to its listeners as events, so the console is just one listener.
+ * Without an input dispatcher, spins are worked out without being drawn, so a game between quiet AI players does no I/O at all and runs as fast as they can decide.
+ * Everything random comes from the engine's random object, spins included, so games with the same seed and players play out the same
+ * as long as no AI player's search gets cut short by the time limit of its budget.
+ */
+public class GameEngine {
+	/**
+	 * The phrases to play with
+	 */
+	public final PhraseStore phrases;
+	
+	/**
+	 * The index of <code>phrases</code>, for the AI
+	 */
+	public final PhraseIndex index;
+	
+	/**
+	 * The wheel for the regular rounds
+	 */
+	public final Wheel wheel;
+	
+	/**
+	 * The random object for this game. <b>In online games this has to be <code>Main.r</code> so every client stays in sync.</b>
+	 */
+	public final Random r;
+	
+	/**
+	 * The players, in turn order
+	 */
+	public final Player[] players;
+	
+	/**
+	 * Picks the phrase for each round
+	 */
+	public PhraseSelector selector;
+	
+	/**
+	 * The wheel for the bonus round
+	 */
+	public Wheel bonusWheel = createBonusWheel();
+	
+	/**
+	 * The best opening letters for each phrase shape, for the AI. Can be null.
+	 */
+	public OpeningBook openingBook;
+	
+	/**
+	 * The main input dispatcher, for skipping spins. Null for a game nobody's watching, which works spins out without drawing them.
+	 */
+	public InputDispatcher in;
+	
+	/**
+	 * Everything that's told about the game's events
+	 */
+	final List<GameListener> listeners = new ArrayList<>();
+	
+	/**
+	 * Constructs a new GameEngine and tells the players about it
+	 * @param phrases The phrases to play with
+	 * @param index The index of the phrases
+	 * @param wheel The wheel for the regular rounds
+	 * @param r The random object for this game
+	 * @param players The players, in turn order
+	 */
+	public GameEngine(PhraseStore phrases, PhraseIndex index, Wheel wheel, Random r, Player[] players) {
+		this.phrases = phrases;
+		this.index = index;
+		this.wheel = wheel;
+		this.r = r;
+		this.players = players;
+		selector = new PhraseSelector(phrases.size());
+		
+		for (Player player : players) {
+			player.joinGame(this);
+		}
+	}
+	
+	/**
+	 * Adds a listener to the game
+	 * @param listener The listener
+	 */
+	public void addListener(GameListener listener) {
+		listeners.add(listener);
+	}
+	
+	/**
+	 * Runs the whole game: 3 regular rounds, then a bonus round for whoever has the most money
+	 */
+	public void play() {
+		for (GameListener listener : listeners) {
+			listener.onGameStart(players);
+		}
+		
+		for (int i = 0; i < 3; i++) { // There should be 3 rounds, then a bonus round
+			playRegularRound(i);
+		}
+		
+		List<Player> sortedByMoney = Arrays.asList(players); // Determine which player has the highest money, then start the bonus round with them.
+		sortedByMoney.sort(Comparator.comparingInt((Player p) -> p.money));
+		Player bonusPlayer = sortedByMoney.get(sortedByMoney.size() - 1);
+		
+		for (GameListener listener : listeners) {
+			listener.onBonusRoundStart(bonusPlayer, players);
+		}
+		
+		playBonusRound(bonusPlayer);
+	}
+	
+	/**
+	 * Runs a regular round with every player
+	 * @param round The number of the round, starting at 0
+	 * @return The player who solved the phrase
+	 */
+	public Player playRegularRound(int round) {
+		Phrase phrase = selectPhrase(); // Select a phrase
+		GuessSet guesses = new GuessSet(Main.PUNCTUATION); // Start the guesses with punctuation so it doesn't hide it
+		RevealState knownPhrase = new RevealState(phrase, guesses); // What the players can see of the phrase
+		
+		int startingPlayer = r.nextInt(players.length); // Pick a random starting player
+		for (GameListener listener : listeners) {
+			listener.onRoundStart(round, knownPhrase, players[startingPlayer]);
+		}
+		
+		for (int i = startingPlayer; ; i = (i + 1) % players.length) { // Go round the players until somebody solves it
+			Player player = players[i];
+			
+			for (GameListener listener : listeners) {
+				listener.onTurnStart(player);
+			}
+			player.onTurnStart(); // Tell the player it's time to start the round
+			
+			while (true) {
+				GuessChoice guessChoice = player.getGuessChoice(knownPhrase, guesses); // Get the player's action of choice
+				
+				if (guessChoice == GuessChoice.BUYVOWEL) {
+					char guess = player.getVowelGuess(guesses); // Verifying the vowel is valid is left up to the Player objects at the moment
+					
+					player.money -= 250;
+					guesses.add(guess);
+					knownPhrase.reveal(guess);
+					
+					int occurrences = phrase.occurrences(guess);
+					for (GameListener listener : listeners) {
+						listener.onReveal(player, guess, occurrences, knownPhrase);
+					}
+					player.resolveBuyVowel(occurrences);
+				} else if (guessChoice == GuessChoice.GUESSPHRASE) {
+					String guess = player.getPhraseGuess(guesses);
+					boolean correct = phrase.matches(guess, Phrase.keyHash(guess)); // Check if the answer is correct. Most wrong guesses stop at the hash
+					for (GameListener listener : listeners) {
+						listener.onSolve(player, guess, correct);
+					}
+					
+					if (correct) {
+						player.resolveGuessPhrase(true);
+						player.money += 1000; // Give the player 1000$ for completing the phrase
+						for (GameListener listener : listeners) {
+							listener.onRoundEnd(round, phrase, player);
+						}
+						return player;
+					} else {
+						player.resolveGuessPhrase(false);
+						break; // End the player's turn
+					}
+				} else { // Player is guessing a letter
+					Slice slice = spin(wheel, player, player.prepareToSpin()); // Spin the wheel when the player is ready
+					
+					for (GameListener listener : listeners) {
+						listener.onSpin(player, slice);
+					}
+					player.onSpinEnded(slice);
+					
+					slice.onSelected.accept(player);
+					
+					char guess = player.getLetterGuess(guesses);
+					
+					guesses.add(guess);
+					knownPhrase.reveal(guess);
+					int occurrences = phrase.occurrences(guess);
+					for (GameListener listener : listeners) {
+						listener.onReveal(player, guess, occurrences, knownPhrase);
+					}
+					
+					if (occurrences != 0) { // If the player was right, give them their money and continue
+						player.resolveGuessLetter(occurrences);
+						slice.onWon.accept(player);
+					} else {
+						player.resolveGuessLetter(0);
+						break; // If the player was wrong, their turn ends
+					}
+					
+					if (slice.endsTurn) {
+						break; // If the slice spun ends the turn, end the turn
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Runs a bonus round with one player
+	 * @param player The player participating in the bonus round
+	 * @return Whether they solved it
+	 */
+	public boolean playBonusRound(Player player) {
+		Phrase phrase = selectPhrase(); // Select a phrase
+		GuessSet guesses = new GuessSet(Main.PUNCTUATION + "rstlne"); // The guesses contains punctuation and the required letters
+		RevealState knownPhrase = new RevealState(phrase, guesses);
+		
+		Slice prize = spin(bonusWheel, player, player.prepareBonusSpin()); // Spin the wheel when the player is ready
+		
+		int playerOriginalMoney = player.money; // Calculate the value of the slice
+		prize.onWon.accept(player);
+		
+		int sliceValue = player.money - playerOriginalMoney;
+		player.money = playerOriginalMoney;
+		
+		for (GameListener listener : listeners) {
+			listener.onBonusPrize(player, prize, sliceValue);
+		}
+		
+		boolean guessed = false;
+		
+		int vowelsGuessed = 0, consonantsGuessed = 0;
+		
+		while (true) {
+			for (GameListener listener : listeners) {
+				listener.onTurnStart(player);
+			}
+			player.onTurnStart();
+			
+			// Check if the player wants to guess the phrase or not
+			boolean guessingPhrase = player.getGuessChoiceBonus(knownPhrase, guesses, consonantsGuessed, vowelsGuessed) == GuessChoice.GUESSPHRASE;
+			
+			if (guessingPhrase) {
+				String guess = player.getPhraseGuess(guesses); // Get the player's guess and check if it's right
+				guessed = phrase.matches(guess, Phrase.keyHash(guess));
+				for (GameListener listener : listeners) {
+					listener.onSolve(player, guess, guessed);
+				}
+				player.resolveGuessPhrase(guessed);
+				break; // The player has made their guess. Stop looping
+			} else {
+				char guess = player.getLetterGuess(guesses);
+				
+				if (GuessSet.isVowel(guess)) { // Increment the correct variable
+					vowelsGuessed++;
+				} else {
+					consonantsGuessed++;
+				}
+				
+				guesses.add(guess);
+				knownPhrase.reveal(guess);
+				int occurrences = phrase.occurrences(guess);
+				for (GameListener listener : listeners) {
+					listener.onReveal(player, guess, occurrences, knownPhrase);
+				}
+				player.resolveGuessLetter(occurrences); // Resolve the guess
+			}
+		}
+		
+		if (guessed) {
+			prize.onWon.accept(player); // If the player guessed right, give them their prize money!
+		}
+		for (GameListener listener : listeners) {
+			listener.onBonusRoundEnd(player, phrase, guessed);
+		}
+		return guessed;
+	}
+	
+	/**
+	 * Spins a wheel for a player. With an input dispatcher it's shown like normal, otherwise it's worked out without drawing anything.
+	 * @param wheel The wheel to spin
+	 * @param player The player spinning it
+	 * @param blocking Whether the spin should be animated
+	 * @return The slice the wheel landed on
+	 */
+	Slice spin(Wheel wheel, Player player, boolean blocking) {
+		if (in == null) {
+			return wheel.resolveSpin(r);
+		}
+		return wheel.spin(player, in, blocking, r);
+	}
+	
+	/**
+	 * Selects a random phrase. No phrase comes up twice until every phrase has come up once.
+	 * @return The phrase
+	 */
+	public Phrase selectPhrase() {
+		return phrases.get(selector.next(r));
+	}
+	
+	/**
+	 * Makes the wheel for the regular rounds
+	 * @return A new wheel with the regular slices
+	 */
+	public static Wheel createWheel() {
+		Wheel wheel = new Wheel();
+		
+		//region Wheel Initialization
+		wheel.slices = new Slice[] {
+				new Slice("$900", Main.BYellow, null, (Player p) -> p.money += 900),
+				new Slice("$700", Main.BRed, null, (Player p) -> p.money += 700),
+				new Slice("$1000", Main.BPurple, null, (Player p) -> p.money += 1000),
+				new Slice("$650", Main.BYellow, null, (Player p) -> p.money += 650),
+				new Slice("$800", Main.BPurple, null, (Player p) -> p.money += 800),
+				new Slice("$700", Main.BYellow, null, (Player p) -> p.money += 700),
+				new Slice("BANKRUPT", Main.BBlack, (Player p) -> p.money = 0, null, true),
+				new Slice("$600", Main.BRed, null, (Player p) -> p.money += 600),
+				new Slice("$550", Main.BCyan, null, (Player p) -> p.money += 550),
+				new Slice("$800", Main.BGreen, null, (Player p) -> p.money += 800),
+				new Slice("$600", Main.BMagenta, null, (Player p) -> p.money += 600),
+				new Slice("BANKRUPT", Main.BBlack, (Player p) -> p.money = 0, null, true),
+				new Slice("$650", Main.BPurple, null, (Player p) -> p.money += 650),
+				new Slice("$1200", Main.BCyan, null, (Player p) -> p.money += 1200),
+				new Slice("$1000", Main.BPurple, null, (Player p) -> p.money += 1000),
+				new Slice("LOSE A TURN", Main.BWhite, null, null, true),
+				new Slice("$800", Main.BRed, null, (Player p) -> p.money += 1000),
+				new Slice("$2000", Main.BYellow, null, (Player p) -> p.money += 2000),
+				new Slice("$650", Main.BMagenta, null, (Player p) -> p.money += 650),
+				new Slice("$800", Main.BGreen, null, (Player p) -> p.money += 800),
+				new Slice("$900", Main.BBlue, null, (Player p) -> p.money += 900),
+				new Slice("BANKRUPT", Main.BBlack, (Player p) -> p.money = 0, null, true),
+				new Slice("$3500", Main.BRed, null, (Player p) -> p.money += 3500),
+				new Slice("$800", Main.BGreen, null, (Player p) -> p.money += 800)
+		};
+		//endregion
+		
+		return wheel;
+	}
+	
+	/**
+	 * Makes the wheel for the bonus round
+	 * @return A new wheel with the bonus slices
+	 */
+	public static Wheel createBonusWheel() {
+		Wheel wheel = new Wheel();
+		
+		//region Bonus Wheel Initialization
+		wheel.slices = new Slice[] {
+				new Slice("    I    ", Main.BBlue, null, (Player p) -> p.money += 80_000),
+				new Slice("    L    ", Main.BBlack, null, (Player p) -> p.money += 55_000),
+				new Slice("    O    ", Main.BRed, null, (Player p) -> p.money += 40_000),
+				new Slice("    V    ", Main.BGreen, null, (Player p) -> p.money += 100_000),
+				new Slice("    E    ", Main.BRed, null, (Player p) -> p.money += 75_000),
+				new Slice("    B    ", Main.BBlue, null, (Player p) -> p.money += 250_000),
+				new Slice("    I    ", Main.BBlack, null, (Player p) -> p.money = 75_000),
+				new Slice("    R    ", Main.BRed, null, (Player p) -> p.money += 35_000),
+				new Slice("    D    ", Main.BGreen, null, (Player p) -> p.money += 8_000),
+				new Slice("    S    ", Main.BRed, null, (Player p) -> p.money += 69_000),
+				new Slice("    \uD83D\uDC26    ", Main.BWhite, null, (Player p) -> p.money += 1_000_000) // Bird emoji
+		};
+		//endregion
+		
+		return wheel;
+	}
+}
@@ -0,0 +1,80 @@
+/**
+ * Something that wants to know what happens in a game, like the console or a stats collector. Every method does nothing unless it's overridden,
+ * so a listener only has to override the events it cares about. Events are sent on the game's thread, in the order things happen.
+ */
+public interface GameListener {
+	/**
+	 * Called once before the first round
+	 * @param players Every player in the game
+	 */
+	default void onGameStart(Player[] players) { }
+	
+	/**
+	 * Called at the start of each regular round, once the phrase and the starting player have been picked
+	 * @param round The number of the round, starting at 0
+	 * @param knownPhrase The phrase as the players can see it. It's updated as letters are revealed.
+	 * @param startingPlayer The player who goes first
+	 */
+	default void onRoundStart(int round, CharSequence knownPhrase, Player startingPlayer) { }
+	
+	/**
+	 * Called at the start of each turn
+	 * @param player The player whose turn it is
+	 */
+	default void onTurnStart(Player player) { }
+	
+	/**
+	 * Called when a spin stops, before the slice's actions have happened
+	 * @param player The player who spun
+	 * @param slice The slice the wheel landed on
+	 */
+	default void onSpin(Player player, Slice slice) { }
+	
+	/**
+	 * Called when a letter is guessed or a vowel is bought, after it's been revealed
+	 * @param player The player who guessed it
+	 * @param letter The letter
+	 * @param occurrences How many times it's in the phrase
+	 * @param knownPhrase The phrase as the players can see it now
+	 */
+	default void onReveal(Player player, char letter, int occurrences, CharSequence knownPhrase) { }
+	
+	/**
+	 * Called when a player tries to solve the phrase
+	 * @param player The player who guessed
+	 * @param guess Their guess
+	 * @param correct Whether it was right
+	 */
+	default void onSolve(Player player, String guess, boolean correct) { }
+	
+	/**
+	 * Called when a regular round ends
+	 * @param round The number of the round
+	 * @param phrase The phrase
+	 * @param solver The player who solved it
+	 */
+	default void onRoundEnd(int round, Phrase phrase, Player solver) { }
+	
+	/**
+	 * Called before the bonus round
+	 * @param player The player playing the bonus round
+	 * @param players Every player in the game
+	 */
+	default void onBonusRoundStart(Player player, Player[] players) { }
+	
+	/**
+	 * Called when the bonus wheel stops
+	 * @param player The player playing the bonus round
+	 * @param prize The slice they spun
+	 * @param value How much the prize is worth
+	 */
+	default void onBonusPrize(Player player, Slice prize, int value) { }
+	
+	/**
+	 * Called when the bonus round ends
+	 * @param player The player who played it
+	 * @param phrase The phrase
+	 * @param solved Whether they solved it and won the prize
+	 */
+	default void onBonusRoundEnd(Player player, Phrase phrase, boolean solved) { }
+}
@@ -0,0 +1,171 @@
+/**
+ * The characters that have been guessed in a round, stored as one bit per character instead of a list of boxed characters.
+ * It can hold the letters a to z (case insensitive) and the punctuation that the phrases use. Checking, adding and counting are all O(1).
+ */
+public final class GuessSet {
+	/**
+	 * The punctuation that can be in a set, in bit order after the letters
+	 */
+	static final String PUNCTUATION = " -_'";
+	
+	/**
+	 * The bits of every letter
+	 */
+	public static final int LETTERS = (1 << 26) - 1;
+	
+	/**
+	 * The bits of the vowels
+	 */
+	public static final int VOWELS = mask("aeiou");
+	
+	/**
+	 * The bits of the consonants
+	 */
+	public static final int CONSONANTS = LETTERS & ~VOWELS;
+	
+	/**
+	 * The guessed characters. Bits 0 to 25 are the letters a to z, and the bits after that are <code>PUNCTUATION</code>.
+	 */
+	private int bits;
+	
+	/**
+	 * Constructs a new, empty GuessSet
+	 */
+	public GuessSet() {
+	}
+	
+	/**
+	 * Constructs a new GuessSet that starts with some characters already guessed
+	 * @param guessed The characters to start with
+	 */
+	public GuessSet(CharSequence guessed) {
+		bits = mask(guessed);
+	}
+	
+	/**
+	 * Finds the bit for a character
+	 * @param c The character. Letters are case insensitive.
+	 * @return The character's bit, or 0 if it can't be in a set
+	 */
+	static int bit(char c) {
+		c = Character.toLowerCase(c);
+		if (c >= 'a' && c <= 'z') {
+			return 1 << (c - 'a');
+		}
+		int punctuation = PUNCTUATION.indexOf(c);
+		return punctuation == -1 ? 0 : 1 << (26 + punctuation);
+	}
+	
+	/**
+	 * Works out the bits for some characters
+	 * @param chars The characters
+	 * @return The bits of all the characters that can be in a set
+	 */
+	public static int mask(CharSequence chars) {
+		int mask = 0;
+		for (int i = 0; i < chars.length(); i++) {
+			mask |= bit(chars.charAt(i));
+		}
+		return mask;
+	}
+	
+	/**
+	 * Checks if a character is a letter that can be guessed (a to z, either case)
+	 * @param c The character to check
+	 * @return Whether the character can be guessed
+	 */
+	public static boolean isGuessable(char c) {
+		return (bit(c) & LETTERS) != 0;
+	}
+	
+	/**
+	 * Checks if a character is a vowel. Case insensitive.
+	 * @param c The character to check
+	 * @return Whether the character is a vowel
+	 */
+	public static boolean isVowel(char c) {
+		return (bit(c) & VOWELS) != 0;
+	}
+	
+	/**
+	 * Adds a guess to the set. Characters that can't be in a set are ignored, since they can never be in a phrase anyway.
+	 * @param c The guessed character
+	 * @return True if the character wasn't already in the set
+	 */
+	public boolean add(char c) {
+		int bit = bit(c);
+		boolean added = (bits & bit) == 0 && bit != 0;
+		bits |= bit;
+		return added;
+	}
+	
+	/**
+	 * Checks if a character has been guessed. Case insensitive.
+	 * @param c The character to check
+	 * @return Whether it has been guessed
+	 */
+	public boolean contains(char c) {
+		int bit = bit(c);
+		return bit != 0 && (bits & bit) != 0;
+	}
+	
+	/**
+	 * Checks if every character in a mask has been guessed, like <code>containsAll(GuessSet.VOWELS)</code>
+	 * @param mask The bits to check
+	 * @return Whether they have all been guessed
+	 */
+	public boolean containsAll(int mask) {
+		return (bits & mask) == mask;
+	}
+	
+	/**
+	 * @return The number of characters guessed, punctuation included
+	 */
+	public int size() {
+		return Integer.bitCount(bits);
+	}
+	
+	/**
+	 * @return The bits of every guessed character
+	 */
+	public int bits() {
+		return bits;
+	}
+	
+	/**
+	 * Counts the letters in a mask that haven't been guessed yet
+	 * @param mask The letters to count, like <code>GuessSet.CONSONANTS</code>
+	 * @return The number of letters left
+	 */
+	public int remaining(int mask) {
+		return Integer.bitCount(mask & LETTERS & ~bits);
+	}
+	
+	/**
+	 * Gets one of the letters that haven't been guessed yet, in alphabetical order. Picking <code>index</code> at random picks a random letter that's left.
+	 * @param mask The letters to pick from, like <code>GuessSet.CONSONANTS</code>
+	 * @param index Which of the letters left to get, from 0 to <code>remaining(mask) - 1</code>
+	 * @return The letter
+	 */
+	public char remainingLetter(int mask, int index) {
+		int left = mask & LETTERS & ~bits;
+		if (index < 0 || index >= Integer.bitCount(left)) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + Integer.bitCount(left) + " letters left");
+		}
+		for (int i = 0; i < index; i++) { // Knock off the lowest letters until the one we want is the lowest
+			left &= left - 1;
+		}
+		return (char) ('a' + Integer.numberOfTrailingZeros(left));
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder out = new StringBuilder();
+		for (char c = 'a'; c <= 'z'; c++) {
+			if (contains(c)) {
+				out.append(c).append(' ');
+			}
+		}
+		return out.toString();
+	}
+}
@@ -0,0 +1,144 @@
+import java.io.*;
+import java.util.ArrayDeque;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Owns an input stream (normally standard input). A single long-lived thread reads it line by line and hands each line to whoever is waiting for it.
+ * Anything that needs input from the user asks the dispatcher instead of reading <code>System.in</code> itself, so two readers never fight over the same line.
+ */
+public class InputDispatcher {
+	/**
+	 * The dispatcher for standard input. Created the first time it's needed.
+	 */
+	private static InputDispatcher stdin;
+	
+	/**
+	 * The reader the dispatcher thread reads lines from
+	 */
+	final BufferedReader reader;
+	
+	/**
+	 * Lines that have been read but that nobody has asked for yet. Guarded by <code>this</code>.
+	 */
+	final ArrayDeque<String> lines = new ArrayDeque<>();
+	
+	/**
+	 * Gets the next line instead of <code>nextLine()</code>, then removes itself. Null when nothing is listening. Guarded by <code>this</code>.
+	 */
+	Consumer<String> lineListener;
+	
+	/**
+	 * Whether the end of the input has been reached. Guarded by <code>this</code>.
+	 */
+	boolean closed = false;
+	
+	/**
+	 * Gets the dispatcher for standard input, starting it if it hasn't been started yet
+	 * @return The dispatcher for <code>System.in</code>
+	 */
+	public static synchronized InputDispatcher stdin() {
+		if (stdin == null) {
+			stdin = new InputDispatcher(System.in);
+		}
+		return stdin;
+	}
+	
+	/**
+	 * Constructs a new InputDispatcher and starts reading from the given stream
+	 * @param in The stream to read lines from
+	 */
+	public InputDispatcher(InputStream in) {
+		reader = new BufferedReader(new InputStreamReader(in));
+		
+		Thread thread = new Thread(this::readLines, "Input Dispatcher");
+		thread.setDaemon(true); // Don't keep the program open just because we're waiting for input
+		thread.start();
+	}
+	
+	/**
+	 * Reads lines until the end of the stream and hands each one out
+	 */
+	void readLines() {
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				dispatch(line);
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		} finally {
+			synchronized (this) {
+				closed = true;
+				notifyAll(); // Wake up anyone waiting so they find out there's nothing left
+			}
+		}
+	}
+	
+	/**
+	 * Hands a line to the line listener if there is one, otherwise keeps it for the next call to <code>nextLine()</code>
+	 * @param line The line that was read
+	 */
+	void dispatch(String line) {
+		Consumer<String> listener;
+		synchronized (this) {
+			listener = lineListener;
+			if (listener == null) {
+				lines.add(line);
+				notifyAll();
+				return;
+			}
+			lineListener = null;
+		}
+		listener.accept(line); // Call it outside the lock so the listener can't hold everyone else up
+	}
+	
+	/**
+	 * Waits for the next line of input and returns it, like <code>Scanner.nextLine()</code>
+	 * @return The next line, without the line break
+	 * @throws NoSuchElementException If the end of the input has been reached
+	 */
+	public synchronized String nextLine() {
+		while (lines.isEmpty()) {
+			if (closed) {
+				throw new NoSuchElementException("No line found");
+			}
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				e.printStackTrace();
+			}
+		}
+		return lines.poll();
+	}
+	
+	/**
+	 * Hands the next line to a listener instead of <code>nextLine()</code>. If a line has already been typed, the listener gets it straight away.
+	 * Only one listener can wait at a time, and it only ever gets one line.
+	 * @param listener The listener to call with the line. It's called on the dispatcher thread, so it shouldn't block.
+	 */
+	public void onNextLine(Consumer<String> listener) {
+		String line;
+		synchronized (this) {
+			line = lines.poll();
+			if (line == null) {
+				lineListener = listener;
+				return;
+			}
+		}
+		listener.accept(line);
+	}
+	
+	/**
+	 * Stops a listener from getting the next line. Any line that comes in afterwards goes to <code>nextLine()</code> like normal.
+	 * @param listener The listener that was passed to <code>onNextLine</code>
+	 * @return True if the listener was removed, false if it had already been called
+	 */
+	public synchronized boolean cancel(Consumer<String> listener) {
+		if (lineListener == listener) {
+			lineListener = null;
+			return true;
+		}
+		return false;
+	}
+}
@@ -0,0 +1,353 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Picks the letter that tells a player the most about which phrase it is (the one with the highest expected information gain).
+ * Guessing a letter splits the candidate phrases up by where that letter is in them, and the more evenly it splits them the more the guess is worth.
+ * The candidates are split into chunks that are scored in parallel. Scoring stops at the deadline of a <code>SearchBudget</code> so a huge candidate list can't hold up the game,
+ * and if there are more candidates than the budget has nodes, an even spread of them is scored instead.
+ * Each candidate gets a hash of where each letter is in it. Every chunk sorts its own hashes into groups, and the chunks' groups are merged together as the tasks finish,
+ * so the grouping is done in parallel too and nothing is boxed. Once the deadline has passed, no more merging is done either and the biggest part that's ready is used.
+ * Hashes that are the same are checked against the phrases, so two different arrangements are never counted as one however long the phrases are.
+ */
+public final class LetterChooser {
+	/**
+	 * How many candidates a single task scores before it splits in two
+	 */
+	static final int CHUNK_SIZE = 2048;
+	
+	/**
+	 * Picks the most informative letter
+	 * @param phrases The phrase store the candidates are in
+	 * @param candidates The indices of the candidate phrases
+	 * @param letters The <code>GuessSet</code> bits of the letters that can be picked
+	 * @param budget How long to spend and how many candidates to score at most. Candidates that weren't scored in time are left out.
+	 * @return The letter, or 0 if no candidates were scored in time
+	 */
+	public static char choose(PhraseStore phrases, int[] candidates, int letters, SearchBudget budget) {
+		long deadline = budget.deadline();
+		letters &= GuessSet.LETTERS;
+		if (letters == 0 || candidates.length == 0 || !budget.allowsSearch()) {
+			return 0;
+		}
+		
+		if (candidates.length > budget.nodes) { // Too many to score, so take every so many of them
+			int[] spread = new int[budget.nodes];
+			for (int i = 0; i < spread.length; i++) {
+				spread[i] = candidates[(int) ((long) i * candidates.length / spread.length)];
+			}
+			candidates = spread;
+		}
+		
+		Splits splits = ForkJoinPool.commonPool().invoke(new ScoreTask(new Splits(phrases, candidates, letters), 0, candidates.length, deadline));
+		if (splits.scored == 0) {
+			return 0;
+		}
+		
+		char best = 0;
+		double bestGain = -1;
+		int bestPresent = -1;
+		for (int l = 0; l < 26; l++) {
+			if ((letters & 1 << l) == 0) {
+				continue;
+			}
+			double gain = splits.informationGain(l);
+			int present = splits.present(l); // When two letters are as good as each other, pick the one more likely to be there
+			if (gain > bestGain + 1e-9 || (gain > bestGain - 1e-9 && present > bestPresent)) {
+				best = (char) ('a' + l);
+				bestGain = gain;
+				bestPresent = present;
+			}
+		}
+		return best;
+	}
+}
+
+/**
+ * For each letter, how some scored candidates split up by where that letter is in them.
+ * Each group of candidates with the letter in the same places is a key (the hash of the positions, then the position in <code>candidates</code> of one of them) and a count,
+ * and each letter's keys are kept sorted so two Splits can be merged in one pass.
+ */
+class Splits {
+	/**
+	 * The phrase store the candidates are in
+	 */
+	final PhraseStore phrases;
+	
+	/**
+	 * Every candidate
+	 */
+	final int[] candidates;
+	
+	/**
+	 * The <code>GuessSet</code> bits of the letters being scored
+	 */
+	final int letters;
+	
+	/**
+	 * How many of the low bits of a key are the candidate's position in <code>candidates</code>
+	 */
+	final int indexBits;
+	
+	/**
+	 * For each letter being scored, the key of each group, sorted. Null for letters that aren't being scored.
+	 */
+	final long[][] keys = new long[26][];
+	
+	/**
+	 * For each letter being scored, how many candidates are in each group
+	 */
+	final int[][] counts = new int[26][];
+	
+	/**
+	 * For each letter, how many groups there are
+	 */
+	final int[] sizes = new int[26];
+	
+	/**
+	 * For each letter, the number of scored candidates it's in
+	 */
+	final int[] presentCounts = new int[26];
+	
+	/**
+	 * The number of candidates that were scored
+	 */
+	int scored = 0;
+	
+	/**
+	 * Constructs a new, empty Splits
+	 * @param phrases The phrase store the candidates are in
+	 * @param candidates Every candidate
+	 * @param letters The <code>GuessSet</code> bits of the letters to score
+	 */
+	Splits(PhraseStore phrases, int[] candidates, int letters) {
+		this.phrases = phrases;
+		this.candidates = candidates;
+		this.letters = letters;
+		indexBits = Math.max(1, 64 - Long.numberOfLeadingZeros(candidates.length - 1));
+		for (int l = 0; l < 26; l++) {
+			if ((letters & 1 << l) != 0) {
+				keys[l] = new long[16];
+				counts[l] = new int[16];
+			}
+		}
+	}
+	
+	/**
+	 * Constructs a new, empty Splits for the same candidates and letters as another one
+	 * @param other The other Splits
+	 */
+	Splits(Splits other) {
+		this(other.phrases, other.candidates, other.letters);
+	}
+	
+	/**
+	 * Scores a range of candidates and groups them. Stops early at the deadline.
+	 * @param from The first candidate to score
+	 * @param to One past the last candidate to score. There can't be more than <code>LetterChooser.CHUNK_SIZE</code> of them.
+	 * @param deadline The <code>System.nanoTime()</code> to stop at
+	 * @param scratch Space for <code>LetterChooser.CHUNK_SIZE</code> keys for every letter
+	 */
+	void score(int from, int to, long deadline, long[] scratch) {
+		long indexMask = (1L << indexBits) - 1;
+		long[] hashes = new long[26];
+		int n = 0;
+		for (int i = from; i < to; i++, n++) {
+			if ((i & 63) == 0 && System.nanoTime() - deadline > 0) { // Out of time. Go with what's been scored so far
+				break;
+			}
+			int phrase = candidates[i];
+			Arrays.fill(hashes, 0);
+			int seen = 0;
+			for (int p = 0; p < phrases.length(phrase); p++) {
+				int letter = PhraseIndex.letterClass(phrases.charAt(phrase, p));
+				if (letter < 26) {
+					hashes[letter] = (hashes[letter] + p + 1) * 0x9E3779B97F4A7C15L; // The positions are always added in order, so the same positions always give the same hash
+					seen |= 1 << letter;
+				}
+			}
+			for (int l = 0; l < 26; l++) {
+				if (keys[l] != null) {
+					long hash = hashes[l] ^ hashes[l] >>> 31;
+					scratch[l * LetterChooser.CHUNK_SIZE + n] = (hash & ~indexMask) | i;
+					presentCounts[l] += seen >>> l & 1;
+				}
+			}
+		}
+		
+		scored = n;
+		for (int l = 0; l < 26; l++) {
+			if (keys[l] != null) {
+				int start = l * LetterChooser.CHUNK_SIZE;
+				Arrays.sort(scratch, start, start + n);
+				for (int k = start; k < start + n; k++) {
+					add(l, scratch[k], 1);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Merges two Splits of different candidates into a new one. If the deadline passes part way through, it gives up and uses the one that scored more.
+	 * @param a One Splits
+	 * @param b The other Splits
+	 * @param deadline The <code>System.nanoTime()</code> to stop at
+	 * @return The Splits of all their candidates, or of the bigger one if there wasn't time
+	 */
+	static Splits merge(Splits a, Splits b, long deadline) {
+		Splits merged = new Splits(a);
+		merged.scored = a.scored + b.scored;
+		for (int l = 0; l < 26; l++) {
+			if (a.keys[l] == null) {
+				continue;
+			}
+			if (System.nanoTime() - deadline > 0) {
+				return a.scored >= b.scored ? a : b;
+			}
+			merged.presentCounts[l] = a.presentCounts[l] + b.presentCounts[l];
+			int i = 0;
+			int j = 0;
+			while (i < a.sizes[l] || j < b.sizes[l]) { // Add them in order so the keys stay sorted
+				if (j == b.sizes[l] || (i < a.sizes[l] && a.keys[l][i] < b.keys[l][j])) {
+					merged.add(l, a.keys[l][i], a.counts[l][i]);
+					i++;
+				} else {
+					merged.add(l, b.keys[l][j], b.counts[l][j]);
+					j++;
+				}
+			}
+		}
+		return merged;
+	}
+	
+	/**
+	 * Adds a group to a letter. Keys have to be added in order. If one of the groups already there with the same hash has the letter in the same places, the counts are added together.
+	 * @param letter The letter, 0 for a
+	 * @param key The key of the group
+	 * @param count How many candidates are in it
+	 */
+	void add(int letter, long key, int count) {
+		long indexMask = (1L << indexBits) - 1;
+		int size = sizes[letter];
+		for (int k = size - 1; k >= 0 && (keys[letter][k] & ~indexMask) == (key & ~indexMask); k--) { // Almost always one group at most, but check in case two arrangements share a hash
+			if (sameArrangement((int) (keys[letter][k] & indexMask), (int) (key & indexMask), letter)) {
+				counts[letter][k] += count;
+				return;
+			}
+		}
+		if (size == keys[letter].length) {
+			keys[letter] = Arrays.copyOf(keys[letter], size * 2);
+			counts[letter] = Arrays.copyOf(counts[letter], size * 2);
+		}
+		keys[letter][size] = key;
+		counts[letter][size] = count;
+		sizes[letter] = size + 1;
+	}
+	
+	/**
+	 * Checks if a letter is in the same positions in two candidates
+	 * @param a The position in <code>candidates</code> of one candidate
+	 * @param b The position in <code>candidates</code> of the other
+	 * @param letter The letter, 0 for a
+	 * @return Whether it's in exactly the same positions
+	 */
+	boolean sameArrangement(int a, int b, int letter) {
+		int phraseA = candidates[a];
+		int phraseB = candidates[b];
+		int length = Math.max(phrases.length(phraseA), phrases.length(phraseB));
+		for (int p = 0; p < length; p++) {
+			boolean inA = p < phrases.length(phraseA) && PhraseIndex.letterClass(phrases.charAt(phraseA, p)) == letter;
+			boolean inB = p < phrases.length(phraseB) && PhraseIndex.letterClass(phrases.charAt(phraseB, p)) == letter;
+			if (inA != inB) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Works out how much guessing a letter is expected to tell, which is the entropy of how it splits the candidates
+	 * @param letter The letter, 0 for a
+	 * @return The expected information gain in bits
+	 */
+	double informationGain(int letter) {
+		double sum = 0;
+		for (int k = 0; k < sizes[letter]; k++) {
+			sum += counts[letter][k] * Math.log(counts[letter][k]);
+		}
+		return (Math.log(scored) - sum / scored) / Math.log(2);
+	}
+	
+	/**
+	 * @param letter The letter, 0 for a
+	 * @return How many of the scored candidates the letter is in
+	 */
+	int present(int letter) {
+		return presentCounts[letter];
+	}
+}
+
+/**
+ * Scores and groups a range of candidates, splitting into smaller tasks if there are a lot of them and merging their groups afterwards
+ */
+class ScoreTask extends RecursiveTask<Splits> {
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Space for each thread to put a chunk's keys in before they're sorted, so it's only allocated once per thread instead of once per chunk
+	 */
+	static final ThreadLocal<long[]> SCRATCH = ThreadLocal.withInitial(() -> new long[26 * LetterChooser.CHUNK_SIZE]);
+	
+	/**
+	 * An empty Splits for the candidates and letters
+	 */
+	final Splits empty;
+	
+	/**
+	 * The first candidate this task scores
+	 */
+	final int from;
+	
+	/**
+	 * One past the last candidate this task scores
+	 */
+	final int to;
+	
+	/**
+	 * The <code>System.nanoTime()</code> to stop at
+	 */
+	final long deadline;
+	
+	/**
+	 * Constructs a new ScoreTask
+	 * @param empty An empty Splits for the candidates and letters
+	 * @param from The first candidate to score
+	 * @param to One past the last candidate to score
+	 * @param deadline When to stop
+	 */
+	ScoreTask(Splits empty, int from, int to, long deadline) {
+		this.empty = empty;
+		this.from = from;
+		this.to = to;
+		this.deadline = deadline;
+	}
+	
+	@Override
+	protected Splits compute() {
+		if (System.nanoTime() - deadline > 0) { // Out of time before starting, so don't score anything
+			return empty;
+		}
+		if (to - from > LetterChooser.CHUNK_SIZE) { // Split the range in two and do both halves at once
+			int middle = (from + to) >>> 1;
+			ScoreTask second = new ScoreTask(empty, middle, to, deadline);
+			second.fork();
+			Splits first = new ScoreTask(empty, from, middle, deadline).compute();
+			return Splits.merge(first, second.join(), deadline); // Once it's out of time this goes with the half that scored more instead
+		}
+		
+		Splits splits = new Splits(empty);
+		splits.score(from, to, deadline, SCRATCH.get());
+		return splits;
+	}
+}
@@ -5,9 +5,9 @@ import java.util.*;
  */
 public class LocalPlayer extends Player {
 	/**
-	 * The main scanner
+	 * The main input dispatcher
 	 */
-	Scanner in;
+	InputDispatcher in;
 	
 	/**
 	 * The last character that was guessed
@@ -36,16 +36,16 @@ public class LocalPlayer extends Player {
 	
 	/**
 	 * Constructs a new LocalPlayer
-	 * @param in The main input Scanner
+	 * @param in The main input dispatcher
 	 * @param name This player's name
 	 */
-	public LocalPlayer(Scanner in, String name) {
+	public LocalPlayer(InputDispatcher in, String name) {
 		this.in = in;
 		this.name = name;
 	}
 	
 	@Override
-	GuessChoice getGuessChoice(String knownPhrase, ArrayList<Character> guesses) {
+	GuessChoice getGuessChoice(CharSequence knownPhrase, GuessSet guesses) {
 		System.out.println(knownPhrase);
 		Main.displayGuesses(guesses); // Display the phrase, guesses, and amount of money
 		Main.displayPlayerStats(this);
@@ -59,7 +59,7 @@ public class LocalPlayer extends Player {
 			} else if (request.equalsIgnoreCase("p") || request.equalsIgnoreCase("phrase")) {
 				return GuessChoice.GUESSPHRASE;
 			} else if (request.equalsIgnoreCase("v") || request.equalsIgnoreCase("vowel")) {
-				if(guesses.containsAll(Main.vowels)) {
+				if(guesses.containsAll(GuessSet.VOWELS)) {
 					System.out.println("You have guessed all the vowels!");
 					continue;
 				}
@@ -75,7 +75,7 @@ public class LocalPlayer extends Player {
 	}
 	
 	@Override
-	char getLetterGuess(ArrayList<Character> guesses) {
+	char getLetterGuess(GuessSet guesses) {
 		System.out.println("Which letter do you want to guess?");
 		
 		if(!bonusRound) { // Ask the player for a letter. In the regular round, this can only be a consonant
@@ -86,7 +86,7 @@ public class LocalPlayer extends Player {
 	}
 	
 	@Override
-	char getVowelGuess(ArrayList<Character> guesses) {
+	char getVowelGuess(GuessSet guesses) {
 		System.out.println("Which vowel do you want to buy?");
 		
 		// Ask the user for a vowel
@@ -94,7 +94,7 @@ public class LocalPlayer extends Player {
 	}
 	
 	@Override
-	String getPhraseGuess(ArrayList<Character> guesses) {
+	String getPhraseGuess(GuessSet guesses) {
 		System.out.println("Guess the phrase: ");
 		return lastPhraseGuess = in.nextLine(); // Ask the user for a phrase
 	}
@@ -161,10 +161,10 @@ public class LocalPlayer extends Player {
 	}
 	
 	@Override
-	GuessChoice getGuessChoiceBonus(String knownPhrase, ArrayList<Character> guesses, int consonants, int vowels) {
+	GuessChoice getGuessChoiceBonus(CharSequence knownPhrase, GuessSet guesses, int consonants, int vowels) {
 		lastKnownConsonants = consonants; // "Remember" the consonants, vowels, and the phrase
 		lastKnownVowels = vowels;
-		lastPhraseGuess = knownPhrase;
+		lastPhraseGuess = knownPhrase.toString();
 		
 		System.out.println(knownPhrase); // Print everything of worth
 		Main.displayGuesses(guesses);
@@ -190,13 +190,13 @@ public class LocalPlayer extends Player {
 	
 	/**
 	 * Ask the user for a letter with the specified restrictions
-	 * @param in The main input Scanner
+	 * @param in The main input dispatcher
 	 * @param allowVowels Whether vowels should be allowed
 	 * @param allowConsonants Whether consonants should be allowed
 	 * @param guesses The letters that can't be chosen
 	 * @return The chosen character
 	 */
-	public static char getLetter(Scanner in, boolean allowVowels, boolean allowConsonants, List<Character> guesses) {
+	public static char getLetter(InputDispatcher in, boolean allowVowels, boolean allowConsonants, GuessSet guesses) {
 		char guess;
 		while (true) {
 			try {
@@ -204,13 +204,13 @@ public class LocalPlayer extends Player {
 			} catch (Exception e) {
 				continue;
 			}
-			if (!Character.isAlphabetic(guess)) {
+			if (!GuessSet.isGuessable(guess)) {
 				System.out.println("Enter a " + Main.Underline + "letter" + Main.Reset);
 			} else if (guesses.contains(guess)) {
 				System.out.println("You've already guessed that letter");
-			} else if (!allowVowels && Main.vowels.contains(guess)) {
+			} else if (!allowVowels && GuessSet.isVowel(guess)) {
 				System.out.println("Enter a consonant please");
-			} else if (!allowConsonants && !Main.vowels.contains(guess)) {
+			} else if (!allowConsonants && !GuessSet.isVowel(guess)) {
 				System.out.println("Enter a vowel please");
 			} else {
 				break;
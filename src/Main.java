@@ -12,12 +12,27 @@ public class Main {
 	/**
 	 * The list of possible phrases
 	 */
-	public static String[] phrases;
+	public static PhraseStore phrases;
 	
 	/**
-	 * The list of vowels
+	 * Picks phrases from <code>phrases</code> so none repeat until they've all been played
 	 */
-	public static List<Character> vowels;
+	public static PhraseSelector phraseSelector;
+	
+	/**
+	 * Finds the phrases that fit a partly revealed phrase, for the AI
+	 */
+	public static PhraseIndex phraseIndex;
+	
+	/**
+	 * The best opening letters for each phrase shape, for the AI. Null if the book for the phrases hasn't been built.
+	 */
+	public static OpeningBook openingBook;
+	
+	/**
+	 * The characters that are guessed for everyone at the start of every round, so they're never hidden
+	 */
+	public static final String PUNCTUATION = " -_'";
 	
 	/**
 	 * An enum representing the different possible gamemodes. Using this enum is easier than making a bunch of booleans or using an int
@@ -34,19 +49,14 @@ public class Main {
 	 */
 	public static GameMode gameMode;
 	
-	static {
-		// Initialize the vowels array (You can't do this up there for some reason)
-		vowels = Arrays.asList('a', 'e', 'i', 'o', 'u');
-	}
-	
 	/**
 	 * Initializes the game, runs it, then displays the leaderboard
 	 *
 	 * @param args Command line arguments, unused
 	 */
 	public static void main(String[] args) {
-		// Initialize the scanner, read the phrases, set the gamemode, and get the players
-		Scanner in = new Scanner(System.in);
+		// Start reading input, read the phrases, set the gamemode, and get the players
+		InputDispatcher in = InputDispatcher.stdin();
 		readPhrasesFromFile("birds.txt");
 		
 		setGameMode(in);
@@ -67,10 +77,10 @@ public class Main {
 	/**
 	 * Gets all the players that will be participating in the game. Does this differently depending on the gamemode.
 	 *
-	 * @param in The main scanner
+	 * @param in The main input dispatcher
 	 * @return Returns an array of players
 	 */
-	public static Player[] getPlayers(Scanner in) {
+	public static Player[] getPlayers(InputDispatcher in) {
 		ArrayList<Player> players = new ArrayList<>();
 		
 		if (gameMode == GameMode.SinglePlayer) {
@@ -91,8 +101,9 @@ public class Main {
 				}
 				break;
 			}
+			AiDifficulty difficulty = selection != 0 ? getDifficulty(in) : AiDifficulty.EASY;
 			for (int i = 0; i < selection; i++) { // Add the opponents to the list of players
-				players.add(new AiPlayer("Opponent " + (i + 1)));
+				players.add(new AiPlayer("Opponent " + (i + 1), difficulty));
 			}
 		} else if (gameMode == GameMode.LocalMultiplayer) {
 			System.out.println("How many people are playing? (2-5)"); // Ask the player to enter the number of players participating
@@ -133,8 +144,9 @@ public class Main {
 					}
 					break;
 				}
+				AiDifficulty difficulty = selection != 0 ? getDifficulty(in) : AiDifficulty.EASY;
 				for (int i = 0; i < selection; i++) { // Add each AI opponent to the player list
-					players.add(new AiPlayer("Opponent " + (i + 1 + playerCount)));
+					players.add(new AiPlayer("Opponent " + (i + 1 + playerCount), difficulty));
 				}
 			}
 		} else {
@@ -179,218 +191,19 @@ public class Main {
 	//region Game
 	
 	/**
-	 * Starts the game and runs 3 rounds plus a bonus round
+	 * Starts the game and runs 3 rounds plus a bonus round, printing everything to the console
 	 *
-	 * @param in      The main scanner
+	 * @param in      The main input dispatcher
 	 * @param players The list of players
 	 */
-	public static void doGame(Scanner in, Player[] players) {
-		Wheel wheel = new Wheel();
-		
-		//region Wheel Initialization
-		wheel.slices = new Slice[] {
-				new Slice("$900", BYellow, null, (Player p) -> p.money += 900),
-				new Slice("$700", BRed, null, (Player p) -> p.money += 700),
-				new Slice("$1000", BPurple, null, (Player p) -> p.money += 1000),
-				new Slice("$650", BYellow, null, (Player p) -> p.money += 650),
-				new Slice("$800", BPurple, null, (Player p) -> p.money += 800),
-				new Slice("$700", BYellow, null, (Player p) -> p.money += 700),
-				new Slice("BANKRUPT", BBlack, (Player p) -> p.money = 0, null, true),
-				new Slice("$600", BRed, null, (Player p) -> p.money += 600),
-				new Slice("$550", BCyan, null, (Player p) -> p.money += 550),
-				new Slice("$800", BGreen, null, (Player p) -> p.money += 800),
-				new Slice("$600", BMagenta, null, (Player p) -> p.money += 600),
-				new Slice("BANKRUPT", BBlack, (Player p) -> p.money = 0, null, true),
-				new Slice("$650", BPurple, null, (Player p) -> p.money += 650),
-				new Slice("$1200", BCyan, null, (Player p) -> p.money += 1200),
-				new Slice("$1000", BPurple, null, (Player p) -> p.money += 1000),
-				new Slice("LOSE A TURN", BWhite, null, null, true),
-				new Slice("$800", BRed, null, (Player p) -> p.money += 1000),
-				new Slice("$2000", BYellow, null, (Player p) -> p.money += 2000),
-				new Slice("$650", BMagenta, null, (Player p) -> p.money += 650),
-				new Slice("$800", BGreen, null, (Player p) -> p.money += 800),
-				new Slice("$900", BBlue, null, (Player p) -> p.money += 900),
-				new Slice("BANKRUPT", BBlack, (Player p) -> p.money = 0, null, true),
-				new Slice("$3500", BRed, null, (Player p) -> p.money += 3500),
-				new Slice("$800", BGreen, null, (Player p) -> p.money += 800)
-		};
-		//endregion
-		
-		System.out.println("How well do you know Ontario's birds? Let's find out!");
-		
-		for (int i = 0; i < 3; i++) { // There should be 3 rounds, then a bonus round
-			System.out.println("Press enter to begin round " + i);
-			doRegularRound(in, players, wheel);
-		}
-		
-		List<Player> sortedByMoney = Arrays.asList(players); // Determine which player has the highest money, then start the bonus round with them.
-		sortedByMoney.sort(Comparator.comparingInt((Player p) -> p.money));
-		
-		displayLeaderboard(players);
-		
-		doBonusRound(in, sortedByMoney.get(sortedByMoney.size() - 1));
-	}
-	
-	/**
-	 * Runs a regular round with the provided players
-	 *
-	 * @param in      The main scanner
-	 * @param players The players participating
-	 * @param wheel   The wheel to use for this round
-	 */
-	public static void doRegularRound(Scanner in, Player[] players, Wheel wheel) {
-		String phrase = selectPhrase(); // Select a phrase
-		ArrayList<Character> guesses = new ArrayList<>(Arrays.asList(' ', '-', '_', '\'')); // Start the guesses with punctuation so it doesn't hide it
-		
-		boolean guessed = false;
-		boolean started = false;
-		
-		int startingPlayer = r.nextInt(players.length); // Pick a random starting player
-		
-		while (!guessed) {
-			midOuterLoop:
-			for (int i = 0; i < players.length; i++) {
-				if (!started) { // If we haven't started yet, start with the starting player
-					i = startingPlayer;
-				}
-				Player player = players[i];
-				if (!started) { // Let the user know who goes first, then start
-					System.out.println(player.name + " starts first!");
-					started = true;
-				}
-				
-				player.onTurnStart(); // Tell the player it's time to start the round
-				
-				while (true) {
-					GuessChoice guessChoice = player.getGuessChoice(formatPhraseWithGuesses(phrase, guesses), guesses); // Get the player's action of choice
-					
-					if (guessChoice == GuessChoice.BUYVOWEL) {
-						char guess = player.getVowelGuess(guesses); // Verifying the vowel is valid is left up to the Player objects at the moment
-						
-						player.money -= 250;
-						guesses.add(guess);
-						
-						player.resolveBuyVowel(charOccurrencesInStringCaseInsensitive(phrase, guess));
-					} else if (guessChoice == GuessChoice.GUESSPHRASE) {
-						String guess = player.getPhraseGuess(guesses);
-						if (stringsEqualWithoutPunctuation(phrase, guess)) { // Check if the answer is correct
-							player.resolveGuessPhrase(true);
-							guessed = true;
-							player.money += 1000; // Give the player 1000$ for completing the phrase
-							break midOuterLoop; // Break out of the entire loop
-						} else {
-							player.resolveGuessPhrase(false);
-							break; // End the player's turn
-						}
-					} else { // Player is guessing a letter
-						Slice slice = wheel.spin(player, in, player.prepareToSpin()); // Spin the wheel when the player is ready
-						
-						player.onSpinEnded(slice);
-						
-						slice.onSelected.accept(player);
-						
-						char guess = player.getLetterGuess(guesses);
-						
-						guesses.add(guess);
-						if (stringContainsCharCaseInsensitive(phrase, guess)) { // If the player was right, give them their money and continue
-							player.resolveGuessLetter(charOccurrencesInStringCaseInsensitive(phrase, guess));
-							slice.onWon.accept(player);
-						} else {
-							player.resolveGuessLetter(0);
-							break; // If the player was wrong, their turn ends
-						}
-						
-						if (slice.endsTurn) {
-							continue midOuterLoop; // If the slice spun ends the turn, end the turn
-						}
-					}
-				}
-			}
-		}
-	}
-	
-	/**
-	 * Runs a bonus round with the provided player
-	 *
-	 * @param in     The main scanner
-	 * @param player The player participating in the bonus round
-	 */
-	public static void doBonusRound(Scanner in, Player player) {
-		String phrase = selectPhrase(); // Select a phrase
-		ArrayList<Character> guesses = new ArrayList<>(Arrays.asList(' ', '-', '_', '\'', 'r', 's', 't', 'l', 'n', 'e')); // The guesses contains punctuation and the required letters
-		
-		Wheel wheel = new Wheel();
-		
-		//region Bonus Wheel Initialization
-		wheel.slices = new Slice[] {
-				new Slice("    I    ", BBlue, null, (Player p) -> p.money += 80_000),
-				new Slice("    L    ", BBlack, null, (Player p) -> p.money += 55_000),
-				new Slice("    O    ", BRed, null, (Player p) -> p.money += 40_000),
-				new Slice("    V    ", BGreen, null, (Player p) -> p.money += 100_000),
-				new Slice("    E    ", BRed, null, (Player p) -> p.money += 75_000),
-				new Slice("    B    ", BBlue, null, (Player p) -> p.money += 250_000),
-				new Slice("    I    ", BBlack, null, (Player p) -> p.money = 75_000),
-				new Slice("    R    ", BRed, null, (Player p) -> p.money += 35_000),
-				new Slice("    D    ", BGreen, null, (Player p) -> p.money += 8_000),
-				new Slice("    S    ", BRed, null, (Player p) -> p.money += 69_000),
-				new Slice("    \uD83D\uDC26    ", BWhite, null, (Player p) -> p.money += 1_000_000) // Bird emoji
-		};
-		//endregion
-		
-		Slice prize = wheel.spin(player, in, player.prepareBonusSpin()); // Spin the wheel when the player is ready
-		
-		System.out.println(player.name + " spun " + prize);
-		
-		int playerOriginalMoney = player.money; // Calculate the value of the slice
-		prize.onWon.accept(player);
-		
-		int sliceValue = player.money - playerOriginalMoney;
-		player.money = playerOriginalMoney;
-		
-		System.out.println("This slice is worth $" + sliceValue + "!");
-		
-		
-		boolean guessed = false;
-		
-		int vowelsGuessed = 0, consonantsGuessed = 0;
-		
-		while (true) {
-			player.onTurnStart();
-			
-			// Check if the player wants to guess the phrase or not
-			boolean guessingPhrase = player.getGuessChoiceBonus(formatPhraseWithGuesses(phrase, guesses), guesses, consonantsGuessed, vowelsGuessed) == GuessChoice.GUESSPHRASE;
-			
-			
-			if (guessingPhrase) {
-				String guess = player.getPhraseGuess(guesses); // Get the player's guess and check if it's right
-				if (stringsEqualWithoutPunctuation(phrase, guess)) {
-					player.resolveGuessPhrase(true);
-					guessed = true;
-				} else {
-					player.resolveGuessPhrase(false);
-				}
-				break; // The player has made their guess. Stop looping
-			} else {
-				char guess = player.getLetterGuess(guesses);
-				
-				if (vowels.contains(Character.toLowerCase(guess))) { // Increment the correct variable
-					vowelsGuessed++;
-				} else {
-					consonantsGuessed++;
-				}
-				
-				guesses.add(guess);
-				if (stringContainsCharCaseInsensitive(phrase, guess)) { // Resolve the guess
-					player.resolveGuessLetter(charOccurrencesInStringCaseInsensitive(phrase, guess));
-				} else {
-					player.resolveGuessLetter(0);
-				}
-			}
-		}
-		
-		if (guessed) {
-			prize.onWon.accept(player); // If the player guessed right, give them their prize money!
-		}
+	public static void doGame(InputDispatcher in, Player[] players) {
+		GameEngine game = new GameEngine(phrases, phraseIndex, GameEngine.createWheel(), r, players);
+		game.selector = phraseSelector; // Keep going through the same phrases, which NetworkManager has synced
+		game.openingBook = openingBook;
+		game.in = in;
+		game.addListener(new ConsoleListener());
+		
+		game.play();
 	}
 	
 	//endregion
@@ -400,9 +213,9 @@ public class Main {
 	/**
 	 * Asks the player what gamemode they want, then sets <code>Main.gameMode</code> accordingly
 	 *
-	 * @param in The main scanner
+	 * @param in The main input dispatcher
 	 */
-	public static void setGameMode(Scanner in) {
+	public static void setGameMode(InputDispatcher in) {
 		System.out.println("What gamemode do you want to play?");
 		System.out.println("1. Singleplayer");
 		System.out.println("2. Local Multiplayer");
@@ -432,6 +245,36 @@ public class Main {
 		}
 	}
 	
+	/**
+	 * Asks the player how good the AI opponents should be
+	 *
+	 * @param in The main input dispatcher
+	 * @return The chosen difficulty
+	 */
+	public static AiDifficulty getDifficulty(InputDispatcher in) {
+		AiDifficulty[] difficulties = AiDifficulty.values();
+		System.out.println("How good should the AI opponents be?");
+		for (int i = 0; i < difficulties.length; i++) {
+			System.out.println((i + 1) + ". " + difficulties[i].displayName);
+		}
+		
+		while (true) { // Just loop until the user enters something correct
+			int selection;
+			try {
+				String input = in.nextLine();
+				selection = Integer.parseInt(input);
+			} catch (Exception e) {
+				System.out.println("Choose a number");
+				continue;
+			}
+			if (selection > difficulties.length || selection < 1) {
+				System.out.println("Choose a number between 1 and " + difficulties.length);
+				continue;
+			}
+			return difficulties[selection - 1];
+		}
+	}
+	
 	//endregion
 	
 	//region Display
@@ -452,36 +295,14 @@ public class Main {
 		}
 	}
 	
-	/**
-	 * Displays a phrase to the screen with unguessed letters replaced with ☐
-	 *
-	 * @param phrase  The unredacted phrase
-	 * @param guesses The list of guessed characters
-	 */
-	public static void displayPhrase(String phrase, List<Character> guesses) {
-		for (int i = 0; i < phrase.length(); i++) {
-			if (guesses.contains(Character.toLowerCase(phrase.charAt(i)))) {
-				System.out.print(phrase.charAt(i));
-			} else {
-				System.out.print("☐");
-			}
-		}
-		System.out.println();
-	}
-	
 	/**
 	 * Displays all the player's guesses
 	 *
-	 * @param guesses The list of guessed characters
+	 * @param guesses The guessed characters
 	 */
-	public static void displayGuesses(List<Character> guesses) {
+	public static void displayGuesses(GuessSet guesses) {
 		System.out.println("You have guessed the following characters:");
-		for (char guess : guesses) {
-			if (Character.isAlphabetic(guess)) {
-				System.out.print(guess + " ");
-			}
-		}
-		System.out.println();
+		System.out.println(guesses); // Only the letters are printed, in alphabetical order
 	}
 	
 	/**
@@ -499,28 +320,6 @@ public class Main {
 	
 	public static Random r = new Random();
 	
-	/**
-	 * Selects a random phrase from the list of phrases
-	 *
-	 * @return A phrase selected from the list of phrases
-	 */
-	public static String selectPhrase() {
-		return phrases[r.nextInt(phrases.length)];
-	}
-	
-	/**
-	 * Checks if 2 strings are equal without case or punctuation
-	 *
-	 * @param s1 The first string to check
-	 * @param s2 The second string to check
-	 * @return A boolean which is true if they are equal and false if they aren't
-	 */
-	public static boolean stringsEqualWithoutPunctuation(String s1, String s2) {
-		String s1n = s1.replaceAll("[ \\-_]", "");
-		String s2n = s2.replaceAll("[ \\-_]", "");
-		return s1n.equalsIgnoreCase(s2n);
-	}
-	
 	/**
 	 * Counts the number of occurrences of a character in a string. Case sensitive.
 	 *
@@ -557,27 +356,6 @@ public class Main {
 		return count;
 	}
 	
-	/**
-	 * Replaces all unguessed characters in a string with ☐. Case insensitive
-	 *
-	 * @param phrase  The phrase
-	 * @param guesses The guessed characters
-	 * @return The formatted string
-	 */
-	public static String formatPhraseWithGuesses(String phrase, ArrayList<Character> guesses) {
-		StringBuilder out = new StringBuilder();
-		
-		for (int i = 0; i < phrase.length(); i++) {
-			if (guesses.contains(Character.toLowerCase(phrase.charAt(i)))) {
-				out.append(phrase.charAt(i));
-			} else {
-				out.append("☐");
-			}
-		}
-		
-		return out.toString();
-	}
-	
 	/**
 	 * Read a list of phrases seperated by newlines from the provided path and places it in <code>Main.phrases</code>
 	 *
@@ -585,14 +363,17 @@ public class Main {
 	 */
 	public static void readPhrasesFromFile(String path) {
 		try {
-			List<String> lines;
-			try {
-				lines = Files.readAllLines(Paths.get(Main.class.getResource(path).toURI())); // This one works in IDEA and OnlineGDB and throws an error in the the .jar version
-			} catch (Exception e) {
-				lines = Files.readAllLines(Paths.get("./birds.txt")); // This one works in the .jar version
+			Path file = Paths.get("./birds.txt"); // This one works in the .jar version
+			URL resource = Main.class.getResource(path);
+			if (resource != null && resource.getProtocol().equals("file")) { // This one works in IDEA and OnlineGDB. In the .jar version it's inside the jar, which can't be mapped
+				file = Paths.get(resource.toURI());
 			}
-			phrases = lines.toArray(new String[1]);
-		} catch (IOException e) {
+			PhraseCorpus corpus = PhraseCorpus.open(file);
+			phrases = PhraseStore.of(corpus); // Phrases are only turned into Strings when they're picked
+			phraseSelector = new PhraseSelector(phrases.size());
+			phraseIndex = new PhraseIndex(phrases); // Only sorts the phrases by length. The rest is built when an AI first needs it
+			openingBook = OpeningBook.load(OpeningBook.pathFor(file), file, corpus); // Null until it's been built with OpeningBook.main, and then smart AIs pick their openings live
+		} catch (IOException | URISyntaxException e) {
 			e.printStackTrace();
 			System.exit(1);
 		}
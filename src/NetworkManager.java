@@ -24,9 +24,9 @@ public class NetworkManager {
 	static NetworkListenerThread listenerThread;
 	
 	/**
-	 * The main input scanner
+	 * The main input dispatcher
 	 */
-	public static Scanner in;
+	public static InputDispatcher in;
 	
 	/**
 	 * The random seed. This must be kept in order to synchronise the Pseudo-random number generators on every client to prevent desync and limit network communication
@@ -63,6 +63,7 @@ public class NetworkManager {
 			randomSeed = inputStream.readLong(); // Read the random seed from the server. This prevents desync.
 			
 			Main.r = new Random(randomSeed); // Configure the main random object to use the seed from the server
+			Main.phraseSelector.reset(); // Start the phrase shuffle from the same place as everyone else
 			
 			localPlayer = new NetworkedLocalPlayer(in, username, inputStream, outputStream); // Create a player for ourselves and add it to the list
 			players.add(localPlayer);
@@ -125,6 +126,7 @@ public class NetworkManager {
 			}
 			
 			Main.r = new Random(randomSeed); // Configure the main random number generator with the seed we made earlier
+			Main.phraseSelector.reset();
 		}
 		
 		
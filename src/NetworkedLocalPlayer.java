@@ -20,7 +20,7 @@ public class NetworkedLocalPlayer extends LocalPlayer {
 	 */
 	public boolean onServer = false;
 	
-	public NetworkedLocalPlayer(Scanner in, String username, DataInputStream inputStream, DataOutputStream outputStream) {
+	public NetworkedLocalPlayer(InputDispatcher in, String username, DataInputStream inputStream, DataOutputStream outputStream) {
 		super(in, username);
 		this.inputStream = inputStream;
 		this.outputStream = outputStream;
@@ -35,7 +35,7 @@ public class NetworkedLocalPlayer extends LocalPlayer {
 	}
 	
 	@Override
-	char getLetterGuess(ArrayList<Character> guesses) {
+	char getLetterGuess(GuessSet guesses) {
 		char letterGuess = super.getLetterGuess(guesses); // This inherits from LocalPlayer, which defines a way of asking the user for a character. Use this.
 		try {
 			if(onServer) { // On the server, relay this information to all clients.
@@ -50,7 +50,7 @@ public class NetworkedLocalPlayer extends LocalPlayer {
 	}
 	
 	@Override
-	char getVowelGuess(ArrayList<Character> guesses) { // These are all basically the same as GetLetterGuess.
+	char getVowelGuess(GuessSet guesses) { // These are all basically the same as GetLetterGuess.
 		char letterGuess = super.getVowelGuess(guesses);
 		try {
 			if(onServer) {
@@ -65,7 +65,7 @@ public class NetworkedLocalPlayer extends LocalPlayer {
 	}
 	
 	@Override
-	String getPhraseGuess(ArrayList<Character> guesses) {
+	String getPhraseGuess(GuessSet guesses) {
 		String phraseGuess = super.getPhraseGuess(guesses);
 		try {
 			if(onServer) {
@@ -80,7 +80,7 @@ public class NetworkedLocalPlayer extends LocalPlayer {
 	}
 	
 	@Override
-	GuessChoice getGuessChoice(String knownPhrase, ArrayList<Character> guesses) {
+	GuessChoice getGuessChoice(CharSequence knownPhrase, GuessSet guesses) {
 		GuessChoice choice = super.getGuessChoice(knownPhrase, guesses);
 		try {
 			if(onServer) {
@@ -95,7 +95,7 @@ public class NetworkedLocalPlayer extends LocalPlayer {
 	}
 	
 	@Override
-	GuessChoice getGuessChoiceBonus(String knownPhrase, ArrayList<Character> guesses, int consonants, int vowels) {
+	GuessChoice getGuessChoiceBonus(CharSequence knownPhrase, GuessSet guesses, int consonants, int vowels) {
 		GuessChoice choice = super.getGuessChoiceBonus(knownPhrase, guesses, consonants, vowels);
 		try {
 			if(onServer) {
@@ -0,0 +1,271 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The best first consonant and first vowel for every phrase shape in the corpus, worked out ahead of time.
+ * At the start of a regular round only the punctuation is showing, so the best opening only depends on the phrase's length and where its spaces
+ * and hyphens are. The book picks it the same way <code>LetterChooser</code> does, over the phrases with exactly that shape.
+ * It's kept in a small binary file next to the corpus that's memory mapped when the game starts. Building it scores every shape with no time limit,
+ * so the game never does it itself: run <code>main</code> to build it ahead of time. Without a book for the current corpus, smart AIs pick their openings live.
+ * The file is a header (magic, version, corpus hash, corpus size, corpus modified time, number of shapes) followed by one entry per shape (shape hash, consonant, vowel), sorted by shape hash.
+ * The size and modified time are checked first, so an unchanged corpus doesn't have to be read through to hash it every time the game starts.
+ */
+public final class OpeningBook {
+	/**
+	 * The first 4 bytes of a book file ("WOBB")
+	 */
+	static final int MAGIC = 0x574F4242;
+	
+	/**
+	 * The version of the file format and of how the openings are picked. Changing either has to change this so old books get rebuilt.
+	 */
+	static final int VERSION = 2;
+	
+	/**
+	 * The size of the header in bytes
+	 */
+	static final int HEADER_SIZE = 36;
+	
+	/**
+	 * The size of each entry in bytes: the shape hash, then the consonant and the vowel as single bytes
+	 */
+	static final int ENTRY_SIZE = 10;
+	
+	/**
+	 * The budget for picking each opening. The book is only built once per corpus, so there's no need to cut it short.
+	 */
+	static final SearchBudget BUDGET = new SearchBudget(TimeUnit.HOURS.toMillis(1), Integer.MAX_VALUE);
+	
+	/**
+	 * The characters that are showing at the start of a regular round
+	 */
+	static final GuessSet REVEALED = new GuessSet(Main.PUNCTUATION);
+	
+	/**
+	 * The whole book, header included. Either mapped from the file or built in memory.
+	 */
+	final ByteBuffer book;
+	
+	/**
+	 * The number of shapes in the book
+	 */
+	final int size;
+	
+	/**
+	 * Constructs a new OpeningBook
+	 * @param book The bytes of the book, which have to have been checked already
+	 */
+	OpeningBook(ByteBuffer book) {
+		this.book = book;
+		size = book.getInt(32);
+	}
+	
+	/**
+	 * Loads the book for a corpus. This never builds it. The corpus is only hashed if the book's there and the corpus is the right size but has been modified since,
+	 * so starting the game without a book, or with one for the same file, never reads the whole corpus.
+	 * @param path The path of the book file
+	 * @param corpusPath The path of the corpus
+	 * @param corpus The corpus
+	 * @return The book, or null if there isn't one or the one there was built from a different corpus
+	 */
+	public static OpeningBook load(Path path, Path corpusPath, PhraseCorpus corpus) {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long length = channel.size();
+			if (length < HEADER_SIZE || length > Integer.MAX_VALUE) {
+				return null;
+			}
+			ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, length); // The mapping stays valid after the channel closes
+			if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION || length != HEADER_SIZE + (long) mapped.getInt(32) * ENTRY_SIZE
+					|| mapped.getLong(16) != corpus.bytes.limit()) {
+				return null;
+			}
+			if (mapped.getLong(24) == Files.getLastModifiedTime(corpusPath).toMillis() || mapped.getLong(8) == corpus.hash()) { // Only hash it if it's been touched
+				return new OpeningBook(mapped);
+			}
+		} catch (NoSuchFileException e) {
+			// It hasn't been built yet
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return null;
+	}
+	
+	/**
+	 * Builds the book for some phrases
+	 * @param phrases The phrases
+	 * @param corpusHash The hash of the corpus the phrases came from
+	 * @param corpusSize The size of the corpus file in bytes
+	 * @param corpusModified When the corpus file was last modified, in milliseconds
+	 * @return The book, in memory
+	 */
+	static OpeningBook build(PhraseStore phrases, long corpusHash, long corpusSize, long corpusModified) {
+		long[] shapeHashes = new long[phrases.size()];
+		for (int i = 0; i < shapeHashes.length; i++) {
+			shapeHashes[i] = shapeHash(phrases, i);
+		}
+		
+		long[] shapes = shapeHashes.clone(); // Every different shape, sorted
+		Arrays.sort(shapes);
+		int shapeCount = 0;
+		for (int i = 0; i < shapes.length; i++) {
+			if (i == 0 || shapes[i] != shapes[i - 1]) {
+				shapes[shapeCount++] = shapes[i];
+			}
+		}
+		
+		int[] shapeOf = new int[shapeHashes.length]; // Group the phrases by shape with a counting sort, so each shape's phrases stay in order
+		int[] groupStarts = new int[shapeCount + 1];
+		for (int i = 0; i < shapeHashes.length; i++) {
+			shapeOf[i] = Arrays.binarySearch(shapes, 0, shapeCount, shapeHashes[i]);
+			groupStarts[shapeOf[i] + 1]++;
+		}
+		for (int s = 0; s < shapeCount; s++) {
+			groupStarts[s + 1] += groupStarts[s];
+		}
+		int[] byShape = new int[shapeHashes.length];
+		int[] filled = Arrays.copyOf(groupStarts, shapeCount);
+		for (int i = 0; i < shapeHashes.length; i++) {
+			byShape[filled[shapeOf[i]]++] = i;
+		}
+		
+		ByteBuffer book = ByteBuffer.allocate(HEADER_SIZE + shapeCount * ENTRY_SIZE);
+		book.putInt(MAGIC).putInt(VERSION).putLong(corpusHash).putLong(corpusSize).putLong(corpusModified).putInt(shapeCount);
+		for (int s = 0; s < shapeCount; s++) { // Pick the openings for each group of phrases with the same shape
+			int[] group = Arrays.copyOfRange(byShape, groupStarts[s], groupStarts[s + 1]);
+			
+			book.putLong(shapes[s]);
+			book.put((byte) LetterChooser.choose(phrases, group, GuessSet.CONSONANTS, BUDGET));
+			book.put((byte) LetterChooser.choose(phrases, group, GuessSet.VOWELS, BUDGET));
+		}
+		return new OpeningBook(book);
+	}
+	
+	/**
+	 * Writes the book to a file. It's written to a temporary file first so a half-written book is never loaded.
+	 * @param path The path of the book file
+	 * @throws IOException If the file can't be written
+	 */
+	void save(Path path) throws IOException {
+		byte[] bytes = new byte[book.limit()];
+		book.duplicate().position(0).get(bytes);
+		Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+		Files.write(temporary, bytes);
+		Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+	}
+	
+	/**
+	 * Gets the best first consonant for a round
+	 * @param knownPhrase The known phrase. Only the punctuation can be showing.
+	 * @return The consonant, or 0 if the shape isn't in the book
+	 */
+	public char consonant(CharSequence knownPhrase) {
+		int entry = find(shapeHash(knownPhrase));
+		return entry < 0 ? 0 : (char) (book.get(entry + 8) & 0xFF);
+	}
+	
+	/**
+	 * Gets the best first vowel to buy in a round
+	 * @param knownPhrase The known phrase. Only the punctuation can be showing.
+	 * @return The vowel, or 0 if the shape isn't in the book
+	 */
+	public char vowel(CharSequence knownPhrase) {
+		int entry = find(shapeHash(knownPhrase));
+		return entry < 0 ? 0 : (char) (book.get(entry + 9) & 0xFF);
+	}
+	
+	/**
+	 * Finds the entry for a shape with a binary search
+	 * @param shapeHash The hash of the shape
+	 * @return The offset of the entry in <code>book</code>, or -1 if it isn't there
+	 */
+	int find(long shapeHash) {
+		int low = 0;
+		int high = size - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			long found = book.getLong(HEADER_SIZE + middle * ENTRY_SIZE);
+			if (found < shapeHash) {
+				low = middle + 1;
+			} else if (found > shapeHash) {
+				high = middle - 1;
+			} else {
+				return HEADER_SIZE + middle * ENTRY_SIZE;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Hashes the shape of a known phrase at the start of a round
+	 * @param knownPhrase The known phrase
+	 * @return The hash of its shape
+	 */
+	static long shapeHash(CharSequence knownPhrase) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < knownPhrase.length(); i++) {
+			hash = mix(hash, knownPhrase.charAt(i));
+		}
+		return hash;
+	}
+	
+	/**
+	 * Hashes the shape a phrase has at the start of a round
+	 * @param phrases The phrase store
+	 * @param phrase The index of the phrase
+	 * @return The hash of its shape
+	 */
+	static long shapeHash(PhraseStore phrases, int phrase) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < phrases.length(phrase); i++) {
+			hash = mix(hash, phrases.charAt(phrase, i));
+		}
+		return hash;
+	}
+	
+	/**
+	 * Adds a character of a shape to a hash (64 bit FNV-1a). Anything that isn't showing at the start of a round counts as hidden.
+	 * @param hash The hash so far
+	 * @param c The character
+	 * @return The new hash
+	 */
+	static long mix(long hash, char c) {
+		if (!REVEALED.contains(c)) {
+			c = RevealState.HIDDEN;
+		}
+		hash = (hash ^ (c & 0xFF)) * 0x100000001b3L;
+		return (hash ^ (c >>> 8)) * 0x100000001b3L;
+	}
+	
+	/**
+	 * Builds the book for a phrase file ahead of time, so the game doesn't have to when it starts. A book that's already up to date is left alone.
+	 * @param args The path of the phrase file, or nothing for birds.txt
+	 */
+	public static void main(String[] args) {
+		try {
+			Path corpusPath = Paths.get(args.length > 0 ? args[0] : "birds.txt");
+			PhraseCorpus corpus = PhraseCorpus.open(corpusPath);
+			Path bookPath = pathFor(corpusPath);
+			OpeningBook book = load(bookPath, corpusPath, corpus);
+			if (book == null) { // Missing or built from a different corpus
+				book = build(PhraseStore.of(corpus), corpus.hash(), corpus.bytes.limit(), Files.getLastModifiedTime(corpusPath).toMillis());
+				book.save(bookPath);
+			}
+			System.out.println("The opening book for " + corpusPath + " has " + book.size + " shapes");
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+	
+	/**
+	 * Gets where the book for a corpus goes
+	 * @param corpusPath The path of the corpus
+	 * @return The path of the book, next to the corpus
+	 */
+	public static Path pathFor(Path corpusPath) {
+		return corpusPath.resolveSibling(corpusPath.getFileName() + ".book");
+	}
+}
@@ -0,0 +1,189 @@
+/**
+ * A phrase that can be played. Everything the game needs to know about its letters is worked out once when it's loaded,
+ * so checking a guess is a table lookup instead of a scan through the text.
+ */
+public final class Phrase {
+	/**
+	 * The phrase as it's written
+	 */
+	public final String text;
+	
+	/**
+	 * How many times each letter from a to z appears in the phrase, ignoring case
+	 */
+	private final int[] letterCounts = new int[26];
+	
+	/**
+	 * The <code>GuessSet</code> bits of every letter in the phrase
+	 */
+	private final int letterMask;
+	
+	/**
+	 * Where each letter's positions start in <code>letterPositions</code>. Letter <code>l</code> (0 for a) has the positions from
+	 * <code>letterStarts[l]</code> up to <code>letterStarts[l + 1]</code>. It has 27 entries.
+	 */
+	final int[] letterStarts = new int[27];
+	
+	/**
+	 * The positions of every letter in the phrase, grouped by letter from a to z
+	 */
+	final int[] letterPositions;
+	
+	/**
+	 * The phrase without spaces, hyphens or underscores, with its case folded. Two phrases that are the same apart from those have the same key.
+	 */
+	public final String key;
+	
+	/**
+	 * The hash of <code>key</code>, the same as <code>keyHash(text)</code>
+	 */
+	public final int keyHash;
+	
+	/**
+	 * Constructs a new Phrase
+	 * @param text The phrase as it's written
+	 */
+	public Phrase(String text) {
+		this.text = text;
+		
+		int mask = 0;
+		for (int i = 0; i < text.length(); i++) {
+			char c = Character.toLowerCase(text.charAt(i)); // Fold the case the same way guesses are checked
+			if (c >= 'a' && c <= 'z') {
+				letterCounts[c - 'a']++;
+				mask |= 1 << (c - 'a');
+			}
+		}
+		letterMask = mask;
+		
+		for (int l = 0; l < 26; l++) { // Index where every letter is so revealing one doesn't need a scan
+			letterStarts[l + 1] = letterStarts[l] + letterCounts[l];
+		}
+		letterPositions = new int[letterStarts[26]];
+		int[] filled = new int[26];
+		for (int i = 0; i < text.length(); i++) {
+			char c = Character.toLowerCase(text.charAt(i));
+			if (c >= 'a' && c <= 'z') {
+				letterPositions[letterStarts[c - 'a'] + filled[c - 'a']++] = i;
+			}
+		}
+		
+		StringBuilder folded = new StringBuilder(text.length());
+		for (int i = 0; i < text.length(); i++) {
+			if (!isIgnoredInSolve(text.charAt(i))) {
+				folded.append(fold(text.charAt(i)));
+			}
+		}
+		key = folded.toString();
+		keyHash = key.hashCode();
+	}
+	
+	/**
+	 * Counts the number of occurrences of a character in the phrase. Case insensitive.
+	 * @param c The character to count
+	 * @return The number of occurrences
+	 */
+	public int occurrences(char c) {
+		char lower = Character.toLowerCase(c);
+		if (lower >= 'a' && lower <= 'z') {
+			return letterCounts[lower - 'a'];
+		}
+		return Main.charOccurrencesInStringCaseInsensitive(text, c); // Anything that isn't a letter is rare enough to just count
+	}
+	
+	/**
+	 * Checks if the phrase contains a character. Case insensitive.
+	 * @param c The character to check for
+	 * @return Whether the phrase contains it
+	 */
+	public boolean contains(char c) {
+		char lower = Character.toLowerCase(c);
+		if (lower >= 'a' && lower <= 'z') {
+			return (letterMask & 1 << (lower - 'a')) != 0;
+		}
+		return Main.stringContainsCharCaseInsensitive(text, c);
+	}
+	
+	/**
+	 * Checks if a guess solves the phrase. Case, spaces, hyphens and underscores don't matter. Nothing is allocated, and it stops at the first character that's wrong.
+	 * @param guess The guessed phrase
+	 * @return Whether the guess is right
+	 */
+	public boolean matches(CharSequence guess) {
+		int k = 0;
+		for (int i = 0; i < guess.length(); i++) {
+			char c = guess.charAt(i);
+			if (isIgnoredInSolve(c)) {
+				continue;
+			}
+			if (k == key.length() || fold(c) != key.charAt(k)) {
+				return false;
+			}
+			k++;
+		}
+		return k == key.length();
+	}
+	
+	/**
+	 * Checks if a guess solves the phrase, skipping the check straight away if the hashes are different.
+	 * Hashing the guess doesn't allocate anything, and a wrong guess almost never has the same hash, so only right guesses get compared character by character.
+	 * @param guess The guessed phrase
+	 * @param guessHash <code>keyHash(guess)</code>
+	 * @return Whether the guess is right
+	 */
+	public boolean matches(CharSequence guess, int guessHash) {
+		return guessHash == keyHash && matches(guess);
+	}
+	
+	/**
+	 * Works out the hash a phrase's key would have, without building the key
+	 * @param s The phrase
+	 * @return The same hash as <code>new Phrase(s).keyHash</code>
+	 */
+	public static int keyHash(CharSequence s) {
+		int hash = 0;
+		for (int i = 0; i < s.length(); i++) {
+			if (!isIgnoredInSolve(s.charAt(i))) {
+				hash = 31 * hash + fold(s.charAt(i)); // The same as String.hashCode()
+			}
+		}
+		return hash;
+	}
+	
+	/**
+	 * Checks if a character is left out when comparing phrases. Apostrophes still count.
+	 * @param c The character to check
+	 * @return Whether it's a space, hyphen or underscore
+	 */
+	static boolean isIgnoredInSolve(char c) {
+		return c == ' ' || c == '-' || c == '_';
+	}
+	
+	/**
+	 * Folds the case of a character so two characters are equal after folding exactly when <code>equalsIgnoreCase</code> says they are
+	 * @param c The character to fold
+	 * @return The folded character
+	 */
+	static char fold(char c) {
+		return Character.toLowerCase(Character.toUpperCase(c));
+	}
+	
+	/**
+	 * @return The <code>GuessSet</code> bits of every letter in the phrase
+	 */
+	public int letterMask() {
+		return letterMask;
+	}
+	
+	/**
+	 * @return The length of the phrase
+	 */
+	public int length() {
+		return text.length();
+	}
+	
+	@Override
+	public String toString() {
+		return text;
+	}
+}
@@ -0,0 +1,150 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * A file of phrases, one per line. The file is memory mapped and only the offsets of the lines are kept on the heap,
+ * so loading even a huge file is one pass over it. A phrase is only decoded when somebody asks for it.
+ */
+public final class PhraseCorpus {
+	/**
+	 * The bytes of the file. Phrases are UTF-8.
+	 */
+	final ByteBuffer bytes;
+	
+	/**
+	 * The offset of the first byte of each line
+	 */
+	final int[] lineStarts;
+	
+	/**
+	 * The offset just past the last byte of each line, not counting the line break
+	 */
+	final int[] lineEnds;
+	
+	/**
+	 * Constructs a new PhraseCorpus and finds the lines in it
+	 * @param bytes The bytes of the file. Lines can end with \n, \r or \r\n, like <code>Files.readAllLines</code>.
+	 */
+	public PhraseCorpus(ByteBuffer bytes) {
+		this.bytes = bytes;
+		
+		int[] starts = new int[1024];
+		int[] ends = new int[1024];
+		int count = 0;
+		
+		int limit = bytes.limit();
+		int start = 0;
+		for (int i = 0; i < limit; i++) {
+			byte b = bytes.get(i);
+			if (b != '\n' && b != '\r') {
+				continue;
+			}
+			
+			if (count == starts.length) { // Make room for more lines
+				starts = Arrays.copyOf(starts, count * 2);
+				ends = Arrays.copyOf(ends, count * 2);
+			}
+			starts[count] = start;
+			ends[count] = i;
+			count++;
+			
+			if (b == '\r' && i + 1 < limit && bytes.get(i + 1) == '\n') { // \r\n is one line break, not two
+				i++;
+			}
+			start = i + 1;
+		}
+		if (start < limit) { // The last line doesn't need a line break after it
+			if (count == starts.length) {
+				starts = Arrays.copyOf(starts, count + 1);
+				ends = Arrays.copyOf(ends, count + 1);
+			}
+			starts[count] = start;
+			ends[count] = limit;
+			count++;
+		}
+		
+		lineStarts = Arrays.copyOf(starts, count);
+		lineEnds = Arrays.copyOf(ends, count);
+	}
+	
+	/**
+	 * Memory maps a file of phrases
+	 * @param path The path to the file
+	 * @return The phrases in the file
+	 * @throws IOException If the file can't be read, or is too big to map
+	 */
+	public static PhraseCorpus open(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException(path + " is too big to load (" + channel.size() + " bytes)");
+			}
+			return new PhraseCorpus(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())); // The mapping stays valid after the channel closes
+		}
+	}
+	
+	/**
+	 * Picks a random phrase straight from a file without mapping it or finding its lines first, for files too big to load.
+	 * The file is read once from start to end and only the phrase that's been picked so far is kept.
+	 * @param path The path to the file
+	 * @param r The random object to use
+	 * @return The phrase
+	 * @throws IOException If the file can't be read or has no phrases
+	 */
+	public static String sample(Path path, Random r) throws IOException {
+		try (Stream<String> lines = Files.lines(path, StandardCharsets.UTF_8)) {
+			return PhraseSelector.sampleStream(lines.iterator(), r);
+		} catch (NoSuchElementException e) {
+			throw new IOException(path + " has no phrases in it");
+		}
+	}
+	
+	/**
+	 * Prints a random phrase from a phrase file of any size, without loading it
+	 * @param args The path of the phrase file, or nothing for birds.txt
+	 */
+	public static void main(String[] args) {
+		try {
+			System.out.println(sample(Paths.get(args.length > 0 ? args[0] : "birds.txt"), new Random()));
+		} catch (IOException | UncheckedIOException e) {
+			e.printStackTrace();
+		}
+	}
+	
+	/**
+	 * Hashes every byte of the file (64 bit FNV-1a), so anything worked out from it can tell when the file has changed
+	 * @return The hash
+	 */
+	public long hash() {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < bytes.limit(); i++) {
+			hash = (hash ^ (bytes.get(i) & 0xFF)) * 0x100000001b3L;
+		}
+		return hash;
+	}
+	
+	/**
+	 * @return The number of phrases
+	 */
+	public int size() {
+		return lineStarts.length;
+	}
+	
+	/**
+	 * Decodes the text of a phrase
+	 * @param index The index of the phrase
+	 * @return The phrase as it's written
+	 */
+	public String text(int index) {
+		byte[] line = new byte[lineEnds[index] - lineStarts[index]];
+		bytes.get(lineStarts[index], line);
+		return new String(line, StandardCharsets.UTF_8);
+	}
+}
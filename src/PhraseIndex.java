@@ -0,0 +1,138 @@
+/**
+ * An index for finding the phrases that fit a partly revealed phrase, like <code>Gr☐☐t T☐t</code>.
+ * Phrases are grouped by length, and for every length, position and letter there's a bitset of the phrases with that letter in that position.
+ * Narrowing the phrases down is then ANDing a few bitsets together, 64 phrases at a time, instead of checking every phrase.
+ * Only the length groups are worked out up front. The bitsets for a length and the trie are built the first time an AI asks for them,
+ * so a game without any AI players never builds them at all.
+ */
+public final class PhraseIndex {
+	/**
+	 * The number of letter classes: a to z, then one for everything else
+	 */
+	static final int CLASSES = 27;
+	
+	/**
+	 * The phrases that are indexed
+	 */
+	final PhraseStore phrases;
+	
+	/**
+	 * For each length, the indices of the phrases with that length, in order. Null if there are none.
+	 */
+	final int[][] lengthBuckets;
+	
+	/**
+	 * For each length, the bitsets of the phrases in its bucket, or null if they haven't been built yet. Use <code>letterBits(length)</code> to get them.
+	 */
+	private final long[][] letterBits;
+	
+	/**
+	 * A trie of the same phrases, for finding everything that fits a pattern in one walk. Null until it's first needed. Use <code>trie()</code> to get it.
+	 */
+	private PhraseTrie trie;
+	
+	/**
+	 * Constructs a new PhraseIndex
+	 * @param phrases The phrases to index
+	 */
+	public PhraseIndex(PhraseStore phrases) {
+		this.phrases = phrases;
+		
+		int longest = 0;
+		for (int i = 0; i < phrases.size(); i++) {
+			longest = Math.max(longest, phrases.length(i));
+		}
+		
+		int[] bucketSizes = new int[longest + 1]; // Sort the phrases into buckets by length
+		for (int i = 0; i < phrases.size(); i++) {
+			bucketSizes[phrases.length(i)]++;
+		}
+		lengthBuckets = new int[longest + 1][];
+		for (int length = 0; length <= longest; length++) {
+			if (bucketSizes[length] != 0) {
+				lengthBuckets[length] = new int[bucketSizes[length]];
+			}
+		}
+		int[] filled = new int[longest + 1];
+		for (int i = 0; i < phrases.size(); i++) {
+			int length = phrases.length(i);
+			lengthBuckets[length][filled[length]++] = i;
+		}
+		
+		letterBits = new long[longest + 1][];
+	}
+	
+	/**
+	 * Gets the bitsets of the phrases with a given length, building them if this is the first time. The bitset for position <code>p</code> and letter class <code>c</code>
+	 * starts at <code>(p * CLASSES + c) * words</code>, where <code>words</code> is how many longs it takes to hold one bit per phrase in the bucket.
+	 * This is synchronized so games on different threads can share the index.
+	 * @param length The length, which has to have a bucket
+	 * @return The bitsets
+	 */
+	synchronized long[] letterBits(int length) {
+		if (letterBits[length] == null) {
+			int[] bucket = lengthBuckets[length];
+			int words = words(bucket.length);
+			long[] bits = new long[length * CLASSES * words];
+			for (int k = 0; k < bucket.length; k++) {
+				for (int p = 0; p < length; p++) {
+					bits[(p * CLASSES + letterClass(phrases.charAt(bucket[k], p))) * words + (k >>> 6)] |= 1L << k;
+				}
+			}
+			letterBits[length] = bits;
+		}
+		return letterBits[length];
+	}
+	
+	/**
+	 * Gets the trie of the phrases, building it if this is the first time. This is synchronized so games on different threads can share the index.
+	 * @return The trie
+	 */
+	synchronized PhraseTrie trie() {
+		if (trie == null) {
+			trie = new PhraseTrie(phrases);
+		}
+		return trie;
+	}
+	
+	/**
+	 * Checks if a phrase fits a pattern by comparing every character
+	 * @param pattern The pattern
+	 * @param phrase The index of the phrase
+	 * @param mistakesAllowed How many characters of the pattern the phrase can disagree with
+	 * @return Whether the phrase fits
+	 */
+	public boolean fits(CharSequence pattern, int phrase, int mistakesAllowed) {
+		if (pattern.length() != phrases.length(phrase)) {
+			return false;
+		}
+		
+		int mistakes = 0;
+		for (int p = 0; p < pattern.length(); p++) {
+			char c = pattern.charAt(p);
+			if (c != RevealState.HIDDEN && c != phrases.charAt(phrase, p) && ++mistakes > mistakesAllowed) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Finds the class a character is indexed under
+	 * @param c The character
+	 * @return 0 to 25 for the letters a to z (either case), or 26 for anything else
+	 */
+	static int letterClass(char c) {
+		char lower = Character.toLowerCase(c);
+		return lower >= 'a' && lower <= 'z' ? lower - 'a' : 26;
+	}
+	
+	/**
+	 * Works out how many longs it takes to hold a bit for every phrase in a bucket
+	 * @param phrases The number of phrases in the bucket
+	 * @return The number of longs
+	 */
+	static int words(int phrases) {
+		return (phrases + 63) >>> 6;
+	}
+}
@@ -0,0 +1,106 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * Picks phrases in a random order without repeating any until every phrase has been picked.
+ * It's a Fisher-Yates shuffle that only does one swap per pick, and only remembers the swaps, so picking is O(1) and the phrases are never copied.
+ * For files too big to index there's also <code>sampleStream</code>, which picks one phrase in a single pass without keeping any of them.
+ * The random object is passed in for every pick, so clients that share a seed pick the same phrases.
+ */
+public class PhraseSelector {
+	/**
+	 * The number of phrases to pick from
+	 */
+	final int size;
+	
+	/**
+	 * The number of phrases picked so far in this pass. They're in positions 0 to <code>picked - 1</code> of the shuffle.
+	 */
+	int picked = 0;
+	
+	/**
+	 * What each position of the shuffle holds, plus 1, or 0 if it still holds its own index. Only allocated on the first pick, so a selector that's never used costs nothing.
+	 */
+	int[] swapped;
+	
+	/**
+	 * Constructs a new PhraseSelector
+	 * @param size The number of phrases to pick from
+	 */
+	public PhraseSelector(int size) {
+		if (size <= 0) {
+			throw new IllegalArgumentException("There are no phrases to pick from");
+		}
+		this.size = size;
+	}
+	
+	/**
+	 * Picks the next phrase. Once every phrase has been picked, a new shuffle starts.
+	 * @param r The main random object. <b>MUST BE THE SAME RANDOM OBJECT AS IS USED EVERYWHERE ELSE!</b>
+	 * @return The index of the phrase
+	 */
+	public int next(Random r) {
+		if (picked == size) { // Every phrase has been used, so start again
+			reset();
+		}
+		
+		if (swapped == null) {
+			swapped = new int[size];
+		}
+		
+		int position = picked + r.nextInt(size - picked); // Swap a random position that hasn't been picked into the next spot
+		int phrase = holding(position);
+		if (position != picked) {
+			swapped[position] = holding(picked) + 1;
+		}
+		picked++; // The next spot is never looked at again
+		return phrase;
+	}
+	
+	/**
+	 * @param position A position of the shuffle
+	 * @return The index of the phrase it holds
+	 */
+	int holding(int position) {
+		return swapped[position] == 0 ? position : swapped[position] - 1;
+	}
+	
+	/**
+	 * @return How many phrases can be picked before one repeats
+	 */
+	public int remaining() {
+		return size - picked;
+	}
+	
+	/**
+	 * Forgets every pick and starts a new shuffle
+	 */
+	public void reset() {
+		picked = 0;
+		if (swapped != null) {
+			Arrays.fill(swapped, 0); // Only happens once every pass, so it's still O(1) per pick
+		}
+	}
+	
+	/**
+	 * Picks one item from a stream of items without knowing how many there are or keeping them (reservoir sampling).
+	 * Every item is equally likely. <code>PhraseCorpus.sample</code> uses this for phrase files too big to index.
+	 * @param items The items to pick from
+	 * @param r The random object to use
+	 * @param <T> The type of the items
+	 * @return The picked item
+	 * @throws NoSuchElementException If there are no items
+	 */
+	public static <T> T sampleStream(Iterator<T> items, Random r) {
+		T chosen = items.next();
+		for (int seen = 2; items.hasNext(); seen++) {
+			T item = items.next();
+			if (r.nextInt(seen) == 0) { // Keep the new item with a chance of 1 in however many have been seen
+				chosen = item;
+			}
+		}
+		return chosen;
+	}
+}
@@ -0,0 +1,192 @@
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Every phrase packed into one buffer, one or two bytes per character, with a table of where each phrase starts and ends.
+ * Phrases are looked at by index (length, characters, letters) so nothing has to be turned into a String until it's actually shown or played.
+ */
+public final class PhraseStore {
+	/**
+	 * The characters of every phrase. When the phrase file is plain ASCII this is the mapped file itself, otherwise it's a packed copy.
+	 */
+	final ByteBuffer chars;
+	
+	/**
+	 * Whether each character takes 2 bytes (UTF-16) instead of 1 (Latin-1). Only needed if a phrase has a character past ÿ.
+	 */
+	final boolean wide;
+	
+	/**
+	 * The index in <code>chars</code> of the first character of each phrase, counted in characters
+	 */
+	final int[] starts;
+	
+	/**
+	 * The index in <code>chars</code> just past the last character of each phrase, counted in characters
+	 */
+	final int[] ends;
+	
+	/**
+	 * The <code>GuessSet</code> bits of the letters in each phrase
+	 */
+	final int[] letterMasks;
+	
+	/**
+	 * Constructs a new PhraseStore
+	 * @param chars The characters of every phrase
+	 * @param wide Whether each character takes 2 bytes
+	 * @param starts The index of the first character of each phrase
+	 * @param ends The index just past the last character of each phrase
+	 */
+	PhraseStore(ByteBuffer chars, boolean wide, int[] starts, int[] ends) {
+		this.chars = chars;
+		this.wide = wide;
+		this.starts = starts;
+		this.ends = ends;
+		
+		letterMasks = new int[starts.length];
+		for (int i = 0; i < starts.length; i++) {
+			for (int j = 0; j < length(i); j++) {
+				letterMasks[i] |= GuessSet.bit(charAt(i, j)) & GuessSet.LETTERS;
+			}
+		}
+	}
+	
+	/**
+	 * Packs the phrases of a corpus into a store. A plain ASCII file is used as it is without copying anything.
+	 * @param corpus The phrases to pack
+	 * @return The packed phrases
+	 */
+	public static PhraseStore of(PhraseCorpus corpus) {
+		boolean ascii = true;
+		for (int i = 0; i < corpus.size() && ascii; i++) {
+			for (int b = corpus.lineStarts[i]; b < corpus.lineEnds[i]; b++) {
+				if (corpus.bytes.get(b) < 0) { // Bytes over 127 are part of a longer UTF-8 character
+					ascii = false;
+					break;
+				}
+			}
+		}
+		if (ascii) { // ASCII is already Latin-1, so the file can be read straight from the mapping
+			return new PhraseStore(corpus.bytes, false, corpus.lineStarts, corpus.lineEnds);
+		}
+		
+		// Decode every line twice: once to find out how big the buffer has to be and if it needs 2 bytes a character, then again straight into the buffer
+		int longestLine = 0;
+		for (int i = 0; i < corpus.size(); i++) {
+			longestLine = Math.max(longestLine, corpus.lineEnds[i] - corpus.lineStarts[i]);
+		}
+		CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE); // The same as new String does
+		CharBuffer line = CharBuffer.allocate(longestLine); // UTF-8 never decodes to more characters than it has bytes
+		
+		long total = 0;
+		boolean wide = false;
+		for (int i = 0; i < corpus.size(); i++) {
+			decode(corpus, i, decoder, line);
+			total += line.remaining();
+			for (int j = line.position(); j < line.limit() && !wide; j++) {
+				wide = line.get(j) > 0xFF;
+			}
+		}
+		if (total * (wide ? 2 : 1) > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("The phrases are too big to pack (" + total + " characters)");
+		}
+		
+		ByteBuffer chars = ByteBuffer.allocate((int) total * (wide ? 2 : 1));
+		int[] starts = new int[corpus.size()];
+		int[] ends = new int[corpus.size()];
+		int position = 0;
+		for (int i = 0; i < starts.length; i++) {
+			decode(corpus, i, decoder, line);
+			starts[i] = position;
+			while (line.hasRemaining()) {
+				if (wide) {
+					chars.putChar(position * 2, line.get());
+				} else {
+					chars.put(position, (byte) line.get());
+				}
+				position++;
+			}
+			ends[i] = position;
+		}
+		return new PhraseStore(chars, wide, starts, ends);
+	}
+	
+	/**
+	 * Decodes a line of a corpus into a buffer, without making a String
+	 * @param corpus The corpus
+	 * @param index The index of the line
+	 * @param decoder A UTF-8 decoder to use
+	 * @param line The buffer to decode into. It has to have room for as many characters as the line has bytes. Afterwards it's ready to read the line from.
+	 */
+	static void decode(PhraseCorpus corpus, int index, CharsetDecoder decoder, CharBuffer line) {
+		ByteBuffer bytes = corpus.bytes.duplicate();
+		bytes.limit(corpus.lineEnds[index]).position(corpus.lineStarts[index]);
+		line.clear();
+		decoder.reset();
+		decoder.decode(bytes, line, true);
+		decoder.flush(line);
+		line.flip();
+	}
+	
+	/**
+	 * @return The number of phrases
+	 */
+	public int size() {
+		return starts.length;
+	}
+	
+	/**
+	 * Gets the length of a phrase
+	 * @param index The index of the phrase
+	 * @return The number of characters in the phrase
+	 */
+	public int length(int index) {
+		return ends[index] - starts[index];
+	}
+	
+	/**
+	 * Gets a character of a phrase
+	 * @param index The index of the phrase
+	 * @param position The position of the character in the phrase
+	 * @return The character
+	 */
+	public char charAt(int index, int position) {
+		int at = starts[index] + position;
+		return wide ? chars.getChar(at * 2) : (char) (chars.get(at) & 0xFF);
+	}
+	
+	/**
+	 * Gets the letters in a phrase
+	 * @param index The index of the phrase
+	 * @return The <code>GuessSet</code> bits of every letter in the phrase
+	 */
+	public int letterMask(int index) {
+		return letterMasks[index];
+	}
+	
+	/**
+	 * Turns a phrase into a String
+	 * @param index The index of the phrase
+	 * @return The phrase as it's written
+	 */
+	public String text(int index) {
+		char[] text = new char[length(index)];
+		for (int j = 0; j < text.length; j++) {
+			text[j] = charAt(index, j);
+		}
+		return new String(text);
+	}
+	
+	/**
+	 * Gets a phrase ready to be played
+	 * @param index The index of the phrase
+	 * @return The phrase
+	 */
+	public Phrase get(int index) {
+		return new Phrase(text(index));
+	}
+}
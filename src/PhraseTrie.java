@@ -0,0 +1,277 @@
+import java.util.Arrays;
+
+/**
+ * A trie of every phrase, for finding the phrases that fit a partly revealed phrase by walking down it instead of checking every phrase.
+ * Phrases that start the same way (like all the "Black-..." and "Greater ..." birds) share one path, so a revealed letter that doesn't fit
+ * cuts off a whole subtree at once, and so does a letter that's known not to be in the phrase. ☐ matches any character.
+ * The trie is built over the same letter classes as <code>PhraseIndex</code>'s bitsets, so case doesn't matter and every character that isn't a letter is the same,
+ * which lets "Black-..." and "Black ..." share a path. Anything it finds still has to be checked against the real characters with <code>PhraseIndex.fits</code>.
+ * The nodes are stored in depth-first order, so every subtree is a run of nodes and the phrases under it are a run of <code>order</code>.
+ */
+public final class PhraseTrie {
+	/**
+	 * Means there's no node
+	 */
+	static final int NONE = -1;
+	
+	/**
+	 * The phrases in the trie
+	 */
+	final PhraseStore phrases;
+	
+	/**
+	 * The indices of the phrases, sorted by their letter classes. This is the order the trie visits them in.
+	 */
+	final int[] order;
+	
+	/**
+	 * The number of nodes. Node 0 is the root and doesn't have a character.
+	 */
+	final int nodes;
+	
+	/**
+	 * The letter class (see <code>PhraseIndex.letterClass</code>) of the character each node adds to the path
+	 */
+	final byte[] labels;
+	
+	/**
+	 * One past the last node of each node's subtree. The node after a node is its first child if it's inside the subtree, and the node after a subtree is the next sibling.
+	 */
+	final int[] subtreeEnds;
+	
+	/**
+	 * The position in <code>order</code> of the first phrase in each node's subtree, with one more entry at the end for the number of phrases.
+	 * The phrases that end at a node are <code>order[firstPhrases[n]]</code> up to <code>order[firstPhrases[n + 1]]</code>.
+	 */
+	final int[] firstPhrases;
+	
+	/**
+	 * The length of the shortest phrase in each node's subtree
+	 */
+	final int[] minLengths;
+	
+	/**
+	 * The length of the longest phrase in each node's subtree
+	 */
+	final int[] maxLengths;
+	
+	/**
+	 * Something that's told about each phrase that fits a pattern
+	 */
+	interface MatchVisitor {
+		/**
+		 * Called for each phrase that fits
+		 * @param phrase The index of the phrase
+		 * @param mistakes How many letter classes of the pattern it disagrees with
+		 */
+		void visit(int phrase, int mistakes);
+	}
+	
+	/**
+	 * Constructs a new PhraseTrie
+	 * @param phrases The phrases to put in the trie
+	 */
+	public PhraseTrie(PhraseStore phrases) {
+		this.phrases = phrases;
+		
+		order = sortedPhrases();
+		
+		// Add the phrases in sorted order. Each one shares the start of the path of the one before it, so only the rest of it needs new nodes
+		byte[] labels = new byte[64];
+		int[] subtreeEnds = new int[64];
+		int[] firstPhrases = new int[64];
+		int[] depths = new int[64];
+		int[] path = new int[16]; // path[d] is the node at depth d on the path of the last phrase
+		int nodes = 1;
+		int pathLength = 0; // The depth of the last phrase
+		for (int i = 0; i < order.length; i++) {
+			int phrase = order[i];
+			int length = phrases.length(phrase);
+			int shared = i == 0 ? 0 : sharedPrefix(order[i - 1], phrase);
+			
+			for (int d = pathLength; d > shared; d--) { // The nodes past the shared part are finished
+				subtreeEnds[path[d]] = nodes;
+			}
+			if (length + 1 > path.length) {
+				path = Arrays.copyOf(path, Math.max(path.length * 2, length + 1));
+			}
+			for (int d = shared + 1; d <= length; d++) {
+				if (nodes == labels.length) {
+					labels = Arrays.copyOf(labels, nodes * 2);
+					subtreeEnds = Arrays.copyOf(subtreeEnds, nodes * 2);
+					firstPhrases = Arrays.copyOf(firstPhrases, nodes * 2);
+					depths = Arrays.copyOf(depths, nodes * 2);
+				}
+				labels[nodes] = (byte) PhraseIndex.letterClass(phrases.charAt(phrase, d - 1));
+				firstPhrases[nodes] = i;
+				depths[nodes] = d;
+				path[d] = nodes++;
+			}
+			pathLength = length;
+		}
+		for (int d = pathLength; d > 0; d--) {
+			subtreeEnds[path[d]] = nodes;
+		}
+		subtreeEnds[0] = nodes;
+		
+		this.nodes = nodes;
+		this.labels = Arrays.copyOf(labels, nodes);
+		this.subtreeEnds = Arrays.copyOf(subtreeEnds, nodes);
+		this.firstPhrases = Arrays.copyOf(firstPhrases, nodes + 1);
+		this.firstPhrases[nodes] = order.length;
+		
+		minLengths = new int[nodes];
+		maxLengths = new int[nodes];
+		for (int n = nodes - 1; n >= 0; n--) { // Children come after their parents, so going backwards does every child first
+			boolean ends = this.firstPhrases[n + 1] != this.firstPhrases[n]; // Some phrases end here
+			minLengths[n] = ends ? depths[n] : Integer.MAX_VALUE;
+			maxLengths[n] = ends ? depths[n] : 0;
+			for (int child = n + 1; child < this.subtreeEnds[n]; child = this.subtreeEnds[child]) {
+				minLengths[n] = Math.min(minLengths[n], minLengths[child]);
+				maxLengths[n] = Math.max(maxLengths[n], maxLengths[child]);
+			}
+		}
+	}
+	
+	/**
+	 * Walks the trie along a pattern and tells a visitor about every phrase that fits it, in the trie's order
+	 * @param pattern The pattern. Characters have to be in the same letter class, except for <code>RevealState.HIDDEN</code> which matches anything.
+	 * @param mistakesAllowed How many letter classes of the pattern a phrase can disagree with and still fit
+	 * @param absentLetters The <code>GuessSet</code> bits of the letters that aren't in the phrase. Any path through one of them is cut off.
+	 * @param visitor What to tell about each phrase that fits
+	 */
+	void visitMatches(CharSequence pattern, int mistakesAllowed, int absentLetters, MatchVisitor visitor) {
+		int length = pattern.length();
+		if (!canReach(0, length)) {
+			return;
+		}
+		if (length == 0) { // Only empty phrases fit, and they end at the root
+			for (int i = firstPhrases[0]; i < firstPhrases[1]; i++) {
+				visitor.visit(order[i], 0);
+			}
+			return;
+		}
+		
+		int[] classes = new int[length]; // The letter class of each character of the pattern, or -1 for a hidden one
+		for (int p = 0; p < length; p++) {
+			char c = pattern.charAt(p);
+			classes[p] = c == RevealState.HIDDEN ? -1 : PhraseIndex.letterClass(c);
+		}
+		
+		int[] child = new int[length]; // child[d] is the node being tried at depth d + 1
+		int[] mistakes = new int[length + 1]; // mistakes[d] is how many mistakes the path down to depth d has
+		int depth = 0;
+		child[0] = firstChild(0);
+		while (depth >= 0) {
+			int node = child[depth];
+			if (node == NONE) { // Nothing left to try at this depth, so go back up and try the next sibling up there
+				if (--depth >= 0) {
+					child[depth] = nextSibling(child[depth], depth == 0 ? 0 : child[depth - 1]);
+				}
+				continue;
+			}
+			
+			int parent = depth == 0 ? 0 : child[depth - 1];
+			int label = labels[node];
+			int nodeMistakes = mistakes[depth] + (classes[depth] == -1 || classes[depth] == label ? 0 : 1);
+			if (nodeMistakes > mistakesAllowed || (label < 26 && (absentLetters & 1 << label) != 0) || !canReach(node, length)) { // Cut the whole subtree off
+				child[depth] = nextSibling(node, parent);
+				continue;
+			}
+			
+			if (depth + 1 == length) { // Every phrase that ends here fits
+				for (int i = firstPhrases[node]; i < firstPhrases[node + 1]; i++) {
+					visitor.visit(order[i], nodeMistakes);
+				}
+				child[depth] = nextSibling(node, parent);
+			} else { // Go down a level
+				mistakes[depth + 1] = nodeMistakes;
+				child[++depth] = firstChild(node);
+			}
+		}
+	}
+	
+	/**
+	 * Checks if a node has any phrases of a given length under it
+	 * @param node The node
+	 * @param length The length
+	 * @return Whether the length is between the shortest and longest phrase under it
+	 */
+	boolean canReach(int node, int length) {
+		return length >= minLengths[node] && length <= maxLengths[node];
+	}
+	
+	/**
+	 * @param node A node
+	 * @return The node's first child, or <code>NONE</code> if it doesn't have any
+	 */
+	int firstChild(int node) {
+		return node + 1 < subtreeEnds[node] ? node + 1 : NONE;
+	}
+	
+	/**
+	 * @param node A node
+	 * @param parent The node's parent
+	 * @return The node's next sibling, or <code>NONE</code> if it's the last child
+	 */
+	int nextSibling(int node, int parent) {
+		return subtreeEnds[node] < subtreeEnds[parent] ? subtreeEnds[node] : NONE;
+	}
+	
+	/**
+	 * Sorts every phrase with <code>compare</code>. It's a merge sort on the indices themselves, so nothing has to be boxed to use a comparator,
+	 * and phrases that compare the same stay in index order.
+	 * @return The indices of the phrases, sorted
+	 */
+	int[] sortedPhrases() {
+		int[] sorted = new int[phrases.size()];
+		for (int i = 0; i < sorted.length; i++) {
+			sorted[i] = i;
+		}
+		int[] scratch = new int[sorted.length];
+		for (int width = 1; width < sorted.length; width *= 2) { // Merge each pair of sorted runs into one run twice as long
+			for (int from = 0; from < sorted.length; from += 2 * width) {
+				int middle = Math.min(from + width, sorted.length);
+				int to = Math.min(from + 2 * width, sorted.length);
+				int a = from;
+				int b = middle;
+				for (int k = from; k < to; k++) {
+					scratch[k] = b == to || (a < middle && compare(sorted[a], sorted[b]) <= 0) ? sorted[a++] : sorted[b++];
+				}
+			}
+			int[] merged = scratch;
+			scratch = sorted;
+			sorted = merged;
+		}
+		return sorted;
+	}
+	
+	/**
+	 * Compares two phrases letter class by letter class, with a phrase that's the start of another one first
+	 * @param a The index of one phrase
+	 * @param b The index of the other phrase
+	 * @return Less than 0, 0, or more than 0 as <code>a</code> sorts before, with, or after <code>b</code>
+	 */
+	int compare(int a, int b) {
+		int shared = sharedPrefix(a, b);
+		if (shared < phrases.length(a) && shared < phrases.length(b)) {
+			return Integer.compare(PhraseIndex.letterClass(phrases.charAt(a, shared)), PhraseIndex.letterClass(phrases.charAt(b, shared)));
+		}
+		return Integer.compare(phrases.length(a), phrases.length(b));
+	}
+	
+	/**
+	 * Counts how many characters two phrases start with in the same letter classes
+	 * @param a The index of one phrase
+	 * @param b The index of the other phrase
+	 * @return The length of the longest common prefix
+	 */
+	int sharedPrefix(int a, int b) {
+		int length = Math.min(phrases.length(a), phrases.length(b));
+		int shared = 0;
+		while (shared < length && PhraseIndex.letterClass(phrases.charAt(a, shared)) == PhraseIndex.letterClass(phrases.charAt(b, shared))) {
+			shared++;
+		}
+		return shared;
+	}
+}
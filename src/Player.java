@@ -1,5 +1,3 @@
-import java.util.ArrayList;
-
 /**
  * The abstract base class of all Players. Contains all functions for the game to interact with a player.
  * All contained functions are to be overridden and it is to be assumed that the overriding player will block execution for any amount of time.
@@ -19,32 +17,32 @@ public abstract class Player {
 	
 	/**
 	 * Gets whether the player wants to guess a letter, buy a vowel, or guess the whole phrase
-	 * @param knownPhrase The phrase with unguessed letters replaced with a box.
+	 * @param knownPhrase The phrase with unguessed letters replaced with a box. It's updated as letters are guessed, so use <code>toString()</code> to keep a copy.
 	 * @param guesses The player's guessed characters
 	 * @return The player's guess preference
 	 */
-	abstract GuessChoice getGuessChoice(String knownPhrase, ArrayList<Character> guesses);
+	abstract GuessChoice getGuessChoice(CharSequence knownPhrase, GuessSet guesses);
 	
 	/**
 	 * Gets a player's letter guess
 	 * @param guesses The player's guessed letters
 	 * @return The player's letter guess
 	 */
-	abstract char getLetterGuess(ArrayList<Character> guesses);
+	abstract char getLetterGuess(GuessSet guesses);
 	
 	/**
 	 * Gets a player's vowel guess
 	 * @param guesses The player's guessed letters
 	 * @return The player's vowel guess
 	 */
-	abstract char getVowelGuess(ArrayList<Character> guesses);
+	abstract char getVowelGuess(GuessSet guesses);
 	
 	/**
 	 * Gets a player's phrase guess
 	 * @param guesses The player's guessed letters
 	 * @return The player's phrase guess
 	 */
-	abstract String getPhraseGuess(ArrayList<Character> guesses);
+	abstract String getPhraseGuess(GuessSet guesses);
 	
 	// Spinning
 	
@@ -98,11 +96,19 @@ public abstract class Player {
 	/**
 	 *
 	 * Gets whether the player wants to guess a letter or guess the whole phrase in the bonus round.
-	 * @param knownPhrase The phrase with unguessed letters replaced with a box.
+	 * @param knownPhrase The phrase with unguessed letters replaced with a box. It's updated as letters are guessed, so use <code>toString()</code> to keep a copy.
 	 * @param guesses The player's guessed characters
 	 * @param consonantsGuessed The number of consonants the player has guessed
 	 * @param vowelsGuessed The number of vowels the player has guessed
 	 * @return The player's guess preference
 	 */
-	abstract GuessChoice getGuessChoiceBonus(String knownPhrase, ArrayList<Character> guesses, int consonantsGuessed, int vowelsGuessed);
+	abstract GuessChoice getGuessChoiceBonus(CharSequence knownPhrase, GuessSet guesses, int consonantsGuessed, int vowelsGuessed);
+	
+	// Setup
+	
+	/**
+	 * Informs the player of the game it's about to play in, before anything happens. Only players that need to look at the game (like the AI) have to override this.
+	 * @param game The game
+	 */
+	void joinGame(GameEngine game) { }
 }
@@ -1,5 +1,4 @@
 import java.io.*;
-import java.util.ArrayList;
 
 /**
  * A class representing a player that is not on the user's computer. All function documentation can be found in <code>Player</code>
@@ -35,7 +34,7 @@ public class RemotePlayer extends Player {
 	}
 	
 	@Override
-	GuessChoice getGuessChoice(String knownPhrase, ArrayList<Character> guesses) {
+	GuessChoice getGuessChoice(CharSequence knownPhrase, GuessSet guesses) {
 		System.out.println(knownPhrase); // Print the knownPhrase for the convenience of the end user
 		String guessChoiceName = null;
 		try {
@@ -53,7 +52,7 @@ public class RemotePlayer extends Player {
 	}
 	
 	@Override
-	char getLetterGuess(ArrayList<Character> guesses) { // These all work pretty much the same, so I'll only document new things
+	char getLetterGuess(GuessSet guesses) { // These all work pretty much the same, so I'll only document new things
 		char letterGuess = 0;
 		try {
 			letterGuess = inputStream.readChar();
@@ -71,12 +70,12 @@ public class RemotePlayer extends Player {
 	}
 	
 	@Override
-	char getVowelGuess(ArrayList<Character> guesses) {
+	char getVowelGuess(GuessSet guesses) {
 		return getLetterGuess(guesses);
 	}
 	
 	@Override
-	String getPhraseGuess(ArrayList<Character> guesses) {
+	String getPhraseGuess(GuessSet guesses) {
 		String phraseGuess = null;
 		try {
 			phraseGuess = inputStream.readUTF();
@@ -143,7 +142,7 @@ public class RemotePlayer extends Player {
 	}
 	
 	@Override
-	GuessChoice getGuessChoiceBonus(String knownPhrase, ArrayList<Character> guesses, int consonantsGuessed, int vowelsGuessed) {
+	GuessChoice getGuessChoiceBonus(CharSequence knownPhrase, GuessSet guesses, int consonantsGuessed, int vowelsGuessed) {
 		return getGuessChoice(knownPhrase, guesses);
 	}
 }
@@ -0,0 +1,94 @@
+/**
+ * The phrase as the players see it during a round, with every letter that hasn't been guessed yet replaced with ☐.
+ * It's kept up to date as letters are guessed instead of being rebuilt every time, and reading it doesn't allocate anything.
+ */
+public final class RevealState implements CharSequence {
+	/**
+	 * The character shown in place of a letter that hasn't been guessed
+	 */
+	public static final char HIDDEN = '☐';
+	
+	/**
+	 * The phrase being revealed
+	 */
+	final Phrase phrase;
+	
+	/**
+	 * The phrase as it's shown right now
+	 */
+	final char[] shown;
+	
+	/**
+	 * Constructs a new RevealState
+	 * @param phrase The phrase being revealed
+	 * @param guesses The characters that have already been guessed, like the punctuation at the start of a round
+	 */
+	public RevealState(Phrase phrase, GuessSet guesses) {
+		this.phrase = phrase;
+		
+		shown = new char[phrase.length()];
+		for (int i = 0; i < shown.length; i++) {
+			char c = phrase.text.charAt(i);
+			if (guesses.contains(c)) {
+				shown[i] = c;
+			} else {
+				shown[i] = HIDDEN;
+			}
+		}
+	}
+	
+	/**
+	 * Reveals every occurrence of a guessed character. Only the positions of that character are touched.
+	 * @param guess The guessed character. Case insensitive.
+	 * @return The number of positions that were revealed by this guess
+	 */
+	public int reveal(char guess) {
+		char lower = Character.toLowerCase(guess);
+		int revealed = 0;
+		if (lower >= 'a' && lower <= 'z') {
+			for (int p = phrase.letterStarts[lower - 'a']; p < phrase.letterStarts[lower - 'a' + 1]; p++) {
+				revealed += show(phrase.letterPositions[p]);
+			}
+		} else if (GuessSet.bit(guess) != 0) { // Punctuation isn't indexed, but it's always guessed at the start anyway
+			for (int i = 0; i < shown.length; i++) {
+				if (Character.toLowerCase(phrase.text.charAt(i)) == lower) {
+					revealed += show(i);
+				}
+			}
+		}
+		return revealed;
+	}
+	
+	/**
+	 * Shows the character at a position
+	 * @param position The position to show
+	 * @return 1 if it was hidden before, otherwise 0
+	 */
+	int show(int position) {
+		if (shown[position] != HIDDEN) {
+			return 0;
+		}
+		shown[position] = phrase.text.charAt(position);
+		return 1;
+	}
+	
+	@Override
+	public int length() {
+		return shown.length;
+	}
+	
+	@Override
+	public char charAt(int index) {
+		return shown[index];
+	}
+	
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		return new String(shown, start, end - start);
+	}
+	
+	@Override
+	public String toString() {
+		return new String(shown);
+	}
+}
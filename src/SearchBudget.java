@@ -0,0 +1,54 @@
+/**
+ * How much work an AI can do for a single decision. A search stops at whichever limit it hits first and goes with the best move it has found by then,
+ * so a decision never takes much longer than <code>millis</code>, and never does more than <code>nodes</code> units of work however many cores there are.
+ * What a node is depends on the search: one candidate phrase scored when picking a letter, or one rollout when planning a turn.
+ */
+public final class SearchBudget {
+	/**
+	 * A budget that doesn't allow any searching, for an AI that just follows its rules
+	 */
+	public static final SearchBudget NONE = new SearchBudget(0, 0);
+	
+	/**
+	 * How long a decision can take, in milliseconds
+	 */
+	public final long millis;
+	
+	/**
+	 * How many nodes a decision can look at
+	 */
+	public final int nodes;
+	
+	/**
+	 * Constructs a new SearchBudget
+	 * @param millis How long a decision can take, in milliseconds
+	 * @param nodes How many nodes a decision can look at
+	 */
+	public SearchBudget(long millis, int nodes) {
+		if (millis < 0 || nodes < 0) {
+			throw new IllegalArgumentException("A search budget can't be negative");
+		}
+		this.millis = millis;
+		this.nodes = nodes;
+	}
+	
+	/**
+	 * @return Whether there's any budget to search with
+	 */
+	public boolean allowsSearch() {
+		return millis > 0 && nodes > 0;
+	}
+	
+	/**
+	 * Works out when a decision starting now has to stop
+	 * @return The <code>System.nanoTime()</code> to stop at
+	 */
+	public long deadline() {
+		return System.nanoTime() + millis * 1_000_000;
+	}
+	
+	@Override
+	public String toString() {
+		return millis + "ms/" + nodes + " nodes";
+	}
+}
@@ -24,6 +24,10 @@ public class Slice {
 	 * Whether the turn should end after the player guesses regardless of whether their answer is correct. True means the turn ends.
 	 */
 	public boolean endsTurn;
+	/**
+	 * How likely the slice is to be spun compared to the other slices. Only used when the wheel is weighted, otherwise it depends on how wide the slice is.
+	 */
+	public double weight;
 	
 	/**
 	 * Constructs a new Slice class.
@@ -45,6 +49,19 @@ public class Slice {
 	 * @param endsTurn Whether the turn should end after the player guesses regardless of whether their answer is correct. True means the turn ends.
 	 */
 	public Slice(String text, String colour, Consumer<Player> onSelected, Consumer<Player> onWon, boolean endsTurn) {
+		this(text, colour, onSelected, onWon, endsTurn, 1);
+	}
+	
+	/**
+	 * Constructs a new Slice class.
+	 * @param text The text to display on the slice when spinning.
+	 * @param colour The ASCII colour code for the slice
+	 * @param onSelected The action to perform when the slice is first spun. It is assumed that null means no action is to be taken.
+	 * @param onWon The action to perform when the slice is spun and the player guesses a letter correctly. It is assumed that null means no action is to be taken.
+	 * @param endsTurn Whether the turn should end after the player guesses regardless of whether their answer is correct. True means the turn ends.
+	 * @param weight How likely the slice is to be spun compared to the other slices when the wheel is weighted
+	 */
+	public Slice(String text, String colour, Consumer<Player> onSelected, Consumer<Player> onWon, boolean endsTurn, double weight) {
 		this.text = text;
 		this.colour = colour;
 		
@@ -59,5 +76,6 @@ public class Slice {
 		this.onWon = onWon;
 		
 		this.endsTurn = endsTurn;
+		this.weight = weight;
 	}
 }
@@ -0,0 +1,128 @@
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * What every slice of a wheel does to a player's money and how likely each one is to be spun. Working this out means trying every slice's actions
+ * and sampling the whole strip, so the wheel builds it once and every planner shares it until the slices change.
+ */
+class SliceOdds {
+	/**
+	 * What each slice does to a player's money
+	 */
+	final SliceEffect[] slices;
+	
+	/**
+	 * The chance of spinning each slice or any slice before it, for picking a slice with one random number
+	 */
+	final double[] cumulativeChances;
+	
+	/**
+	 * Constructs a new SliceOdds
+	 * @param slices The slices of the wheel
+	 * @param chances The chance of spinning each slice
+	 */
+	SliceOdds(Slice[] slices, double[] chances) {
+		this.slices = new SliceEffect[slices.length];
+		cumulativeChances = new double[slices.length];
+		double total = 0;
+		for (int i = 0; i < slices.length; i++) {
+			this.slices[i] = new SliceEffect(slices[i]);
+			total += chances[i];
+			cumulativeChances[i] = total;
+		}
+	}
+	
+	/**
+	 * Picks the slice a spin lands on
+	 * @param random The random object of the task that's spinning
+	 * @return The index of the slice
+	 */
+	int spin(SplittableRandom random) {
+		double roll = random.nextDouble() * cumulativeChances[cumulativeChances.length - 1];
+		for (int i = 0; i < cumulativeChances.length - 1; i++) {
+			if (roll < cumulativeChances[i]) {
+				return i;
+			}
+		}
+		return cumulativeChances.length - 1;
+	}
+	
+	/**
+	 * What a slice does to a player's money when it's spun and when the letter after it is right.
+	 * Slices only have actions, so each one is found out by trying it on a scratch player with two different amounts of money:
+	 * if both come out the same the action sets the money, otherwise it adds to it.
+	 */
+	static final class SliceEffect {
+		/**
+		 * Whether spinning the slice sets the money instead of adding to it
+		 */
+		final boolean selectedSets;
+		
+		/**
+		 * What spinning the slice sets the money to or adds to it
+		 */
+		final int selectedAmount;
+		
+		/**
+		 * Whether a right letter sets the money instead of adding to it
+		 */
+		final boolean wonSets;
+		
+		/**
+		 * What a right letter sets the money to or adds to it
+		 */
+		final int wonAmount;
+		
+		/**
+		 * Whether the turn ends after the letter guess
+		 */
+		final boolean endsTurn;
+		
+		/**
+		 * Constructs a new SliceEffect by trying out a slice's actions
+		 * @param slice The slice
+		 */
+		SliceEffect(Slice slice) {
+			int fromLess = probe(slice.onSelected, 1000);
+			int fromMore = probe(slice.onSelected, 2000);
+			selectedSets = fromLess == fromMore;
+			selectedAmount = selectedSets ? fromLess : fromLess - 1000;
+			
+			fromLess = probe(slice.onWon, 1000);
+			fromMore = probe(slice.onWon, 2000);
+			wonSets = fromLess == fromMore;
+			wonAmount = wonSets ? fromLess : fromLess - 1000;
+			
+			endsTurn = slice.endsTurn;
+		}
+		
+		/**
+		 * Runs a slice action on a scratch player
+		 * @param action The action
+		 * @param money The money the scratch player starts with
+		 * @return The money the scratch player has afterwards
+		 */
+		static int probe(Consumer<Player> action, int money) {
+			Player scratch = new AiPlayer("Scratch");
+			scratch.money = money;
+			action.accept(scratch);
+			return scratch.money;
+		}
+		
+		/**
+		 * @param money The money before the spin
+		 * @return The money after the slice is spun
+		 */
+		int selected(int money) {
+			return selectedSets ? selectedAmount : money + selectedAmount;
+		}
+		
+		/**
+		 * @param money The money before the right letter
+		 * @return The money after the letter is paid out
+		 */
+		int won(int money) {
+			return wonSets ? wonAmount : money + wonAmount;
+		}
+	}
+}
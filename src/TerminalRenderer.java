@@ -0,0 +1,182 @@
+import java.io.*;
+import java.util.Objects;
+
+/**
+ * Draws a fixed-size block of coloured characters to the terminal, like the spinning wheel.
+ * The renderer remembers what it drew last time and only rewrites the cells that changed, and each frame goes out in a single write.
+ * After every frame the cursor is left at the start of the line below the block, just like after a <code>println</code>.
+ */
+public class TerminalRenderer {
+	/**
+	 * The number of rows in the block
+	 */
+	final int rows;
+	
+	/**
+	 * The number of columns in the block
+	 */
+	final int columns;
+	
+	/**
+	 * The characters of the frame being built, row by row
+	 */
+	final char[] cells;
+	
+	/**
+	 * The colour codes of the frame being built, row by row. Null means no colour.
+	 */
+	final String[] colours;
+	
+	/**
+	 * The characters that are on the screen right now
+	 */
+	final char[] shownCells;
+	
+	/**
+	 * The colour codes that are on the screen right now
+	 */
+	final String[] shownColours;
+	
+	/**
+	 * Whether a frame has been drawn yet. The first frame is drawn in full, later ones are drawn over the top of it.
+	 */
+	boolean onScreen = false;
+	
+	/**
+	 * The escape codes and characters for the next frame. Reused for every frame.
+	 */
+	final StringBuilder frame = new StringBuilder();
+	
+	/**
+	 * Where frames are written. It doesn't flush by itself, so a frame only goes out when it is finished.
+	 */
+	final PrintStream out;
+	
+	/**
+	 * Constructs a new TerminalRenderer that draws to <code>System.out</code>
+	 * @param rows The number of rows in the block
+	 * @param columns The number of columns in the block
+	 */
+	public TerminalRenderer(int rows, int columns) {
+		this(rows, columns, System.out);
+	}
+	
+	/**
+	 * Constructs a new TerminalRenderer
+	 * @param rows The number of rows in the block
+	 * @param columns The number of columns in the block
+	 * @param out The stream to draw to
+	 */
+	public TerminalRenderer(int rows, int columns, OutputStream out) {
+		this.rows = rows;
+		this.columns = columns;
+		this.out = new PrintStream(new BufferedOutputStream(out, 8192), false);
+		
+		cells = new char[rows * columns];
+		colours = new String[rows * columns];
+		shownCells = new char[rows * columns];
+		shownColours = new String[rows * columns];
+	}
+	
+	/**
+	 * Sets a cell of the next frame. Nothing is drawn until <code>present()</code> is called.
+	 * @param row The row of the cell
+	 * @param column The column of the cell
+	 * @param c The character to put in the cell
+	 * @param colour The colour code of the cell, or null for no colour
+	 */
+	public void set(int row, int column, char c, String colour) {
+		cells[row * columns + column] = c;
+		colours[row * columns + column] = colour;
+	}
+	
+	/**
+	 * Draws the next frame. If there's already a frame on the screen, the cursor goes back up to it and only the changed cells are rewritten.
+	 */
+	public void present() {
+		frame.setLength(0);
+		
+		if (onScreen) {
+			frame.append("\u001b[").append(rows).append('A'); // Move the cursor up to the first row of the block
+		}
+		
+		String currentColour = null;
+		for (int row = 0; row < rows; row++) {
+			int rowStart = row * columns;
+			int column = 0;
+			while (column < columns) {
+				if (onScreen && unchanged(rowStart + column)) {
+					column++;
+					continue;
+				}
+				
+				int end = column + 1; // Find the end of this run of changed cells
+				while (end < columns && !(onScreen && unchanged(rowStart + end))) {
+					end++;
+				}
+				
+				// Never write half an emoji
+				if (column > 0 && Character.isLowSurrogate(cells[rowStart + column])) {
+					column--;
+				}
+				if (end < columns && Character.isHighSurrogate(cells[rowStart + end - 1])) {
+					end++;
+				}
+				
+				if (onScreen) {
+					frame.append("\u001b[").append(column + 1).append('G'); // Move the cursor to the start of the run
+				}
+				
+				for (int i = rowStart + column; i < rowStart + end; i++) {
+					if (!Objects.equals(colours[i], currentColour)) { // Only switch colours when the colour actually changes
+						currentColour = colours[i];
+						frame.append(currentColour == null ? Main.Reset : currentColour);
+					}
+					if (Character.isSurrogate(cells[i]) && !isHalfOfPair(i, rowStart)) {
+						frame.append('?'); // Half an emoji can't be drawn
+					} else {
+						frame.append(cells[i]);
+					}
+					
+					shownCells[i] = cells[i];
+					shownColours[i] = colours[i];
+				}
+				
+				column = end;
+			}
+			
+			if (currentColour != null) { // Reset the colouring at the end of each row
+				frame.append(Main.Reset);
+				currentColour = null;
+			}
+			frame.append('\n'); // Go to the start of the next row (or the line below the block)
+		}
+		
+		onScreen = true;
+		
+		out.append(frame);
+		out.flush();
+	}
+	
+	/**
+	 * Checks if a cell holds one half of an emoji whose other half is in the cell next to it
+	 * @param index The index of the cell
+	 * @param rowStart The index of the first cell of the row
+	 * @return Whether the cell is part of a complete surrogate pair
+	 */
+	boolean isHalfOfPair(int index, int rowStart) {
+		if (Character.isHighSurrogate(cells[index])) {
+			return index + 1 < rowStart + columns && Character.isLowSurrogate(cells[index + 1]);
+		}
+		return Character.isLowSurrogate(cells[index]) && index > rowStart && Character.isHighSurrogate(cells[index - 1]);
+	}
+	
+	/**
+	 * Checks if a cell of the next frame is already on the screen
+	 * @param index The index of the cell
+	 * @return Whether the cell is the same as the one on the screen
+	 */
+	boolean unchanged(int index) {
+		return cells[index] == shownCells[index] && Objects.equals(colours[index], shownColours[index]);
+	}
+}
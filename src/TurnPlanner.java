@@ -0,0 +1,353 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Decides whether to spin, buy a vowel or solve by playing out the rest of the turn lots of times (Monte Carlo rollouts) and picking the action
+ * that ends the turn with the most money on average. Each rollout picks one of the candidate phrases to be the answer, does the action, then keeps
+ * playing with a simple fixed strategy until the turn ends. Spins land on the wheel's real slices with their real chances, so BANKRUPT and LOSE A TURN count too.
+ * Rollouts run in parallel and every task has its own <code>SplittableRandom</code> split off from the one the planner is given, so planning never touches <code>Main.r</code>
+ * and the same seed plays the same rollouts. Which rollouts finish before the deadline can still change from run to run.
+ */
+public final class TurnPlanner {
+	/**
+	 * How many rollouts a single task plays before it splits in two
+	 */
+	static final int CHUNK_SIZE = 256;
+	
+	/**
+	 * How many actions a rollout plays before it stops, so a lucky streak can't go on forever
+	 */
+	static final int MAX_STEPS = 12;
+	
+	/**
+	 * The money given for solving the phrase
+	 */
+	static final int SOLVE_BONUS = 1000;
+	
+	/**
+	 * What buying a vowel costs
+	 */
+	static final int VOWEL_COST = 250;
+	
+	/**
+	 * What each slice of the wheel does to a player's money and how likely it is to be spun
+	 */
+	final SliceOdds odds;
+	
+	/**
+	 * The <code>GuessSet</code> bits of the letters in each candidate phrase
+	 */
+	final int[] candidateMasks;
+	
+	/**
+	 * The consonants and then the vowels, each from the one in the most candidates to the one in the fewest. Rollouts guess letters in this order.
+	 */
+	final char[] letterOrder;
+	
+	/**
+	 * Whether the player picks its letters at random, so rollouts should too instead of going by <code>letterOrder</code>
+	 */
+	final boolean randomLetters;
+	
+	/**
+	 * The money the player has right now
+	 */
+	final int money;
+	
+	/**
+	 * The <code>GuessSet</code> bits of the letters guessed so far
+	 */
+	final int guessed;
+	
+	/**
+	 * The random object the rollout tasks are split off from
+	 */
+	final SplittableRandom random;
+	
+	/**
+	 * Constructs a new TurnPlanner
+	 * @param wheel The wheel the player spins
+	 * @param phrases The phrase store the candidates are in
+	 * @param candidates The indices of the phrases that could be the answer
+	 * @param money The money the player has
+	 * @param guesses Every guess made so far this round
+	 * @param randomLetters Whether the player picks its letters at random
+	 * @param random The random object to play the rollouts with. Nothing else should use it.
+	 */
+	public TurnPlanner(Wheel wheel, PhraseStore phrases, int[] candidates, int money, GuessSet guesses, boolean randomLetters, SplittableRandom random) {
+		this.money = money;
+		this.randomLetters = randomLetters;
+		this.random = random;
+		guessed = guesses.bits() & GuessSet.LETTERS;
+		odds = wheel.odds();
+		
+		candidateMasks = new int[candidates.length];
+		int[] counts = new int[26];
+		for (int i = 0; i < candidates.length; i++) {
+			candidateMasks[i] = phrases.letterMask(candidates[i]);
+			for (int l = 0; l < 26; l++) {
+				if ((candidateMasks[i] & 1 << l) != 0) {
+					counts[l]++;
+				}
+			}
+		}
+		
+		letterOrder = new char[26];
+		int filled = 0;
+		for (int pass = 0; pass < 2; pass++) { // Consonants first, then vowels
+			int group = pass == 0 ? GuessSet.CONSONANTS : GuessSet.VOWELS;
+			int start = filled;
+			for (int l = 0; l < 26; l++) {
+				if ((group & 1 << l) != 0) {
+					char c = (char) ('a' + l);
+					int i = filled++;
+					while (i > start && counts[letterOrder[i - 1] - 'a'] < counts[l]) { // Insertion sort, most common first
+						letterOrder[i] = letterOrder[i - 1];
+						i--;
+					}
+					letterOrder[i] = c;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Plays rollouts until the budget runs out and picks the best action so far
+	 * @param budget How long to spend and how many rollouts to play at most
+	 * @return The action that's worth the most on average, or null if there are no candidates or no rollouts were played in time
+	 */
+	public GuessChoice choose(SearchBudget budget) {
+		long deadline = budget.deadline();
+		if (candidateMasks.length == 0 || !budget.allowsSearch()) {
+			return null;
+		}
+		
+		Tally tally = ForkJoinPool.commonPool().invoke(new RolloutTask(this, budget.nodes, random, deadline));
+		if (tally.rollouts == 0) {
+			return null;
+		}
+		
+		GuessChoice best = GuessChoice.GUESSPHRASE; // The AI guesses one of the candidates, so solving is right one time in however many there are
+		double bestValue = money + (double) SOLVE_BONUS / candidateMasks.length;
+		if (canSpin() && tally.spin / tally.rollouts > bestValue) {
+			best = GuessChoice.GUESSLETTER;
+			bestValue = tally.spin / tally.rollouts;
+		}
+		if (canBuyVowel() && tally.buyVowel / tally.rollouts > bestValue) {
+			best = GuessChoice.BUYVOWEL;
+		}
+		return best;
+	}
+	
+	/**
+	 * @return Whether there are letters left to guess after a spin
+	 */
+	boolean canSpin() {
+		return (guessed & GuessSet.LETTERS) != GuessSet.LETTERS;
+	}
+	
+	/**
+	 * @return Whether the player has the money for a vowel and there are vowels left to buy
+	 */
+	boolean canBuyVowel() {
+		return money >= VOWEL_COST && (guessed & GuessSet.VOWELS) != GuessSet.VOWELS;
+	}
+	
+	/**
+	 * Plays one rollout for each action that takes a rollout, with the same answer for all of them
+	 * @param random The random object of this task
+	 * @param tally Where to add up how much money each action ended with
+	 */
+	void rollout(SplittableRandom random, Tally tally) {
+		int answer = random.nextInt(candidateMasks.length);
+		if (canSpin()) {
+			tally.spin += playOut(GuessChoice.GUESSLETTER, answer, random);
+		}
+		if (canBuyVowel()) {
+			tally.buyVowel += playOut(GuessChoice.BUYVOWEL, answer, random);
+		}
+		tally.rollouts++;
+	}
+	
+	/**
+	 * Plays the rest of the turn, starting with a given action
+	 * @param first The first action
+	 * @param answer The index in <code>candidateMasks</code> of the phrase this rollout pretends is the answer
+	 * @param random The random object of this task
+	 * @return The money the player ends the turn with, including the bonus for solving
+	 */
+	int playOut(GuessChoice first, int answer, SplittableRandom random) {
+		int money = this.money;
+		int guessed = this.guessed;
+		int answerMask = candidateMasks[answer];
+		
+		GuessChoice action = first;
+		for (int step = 0; step < MAX_STEPS; step++) {
+			if (step > 0) { // After the first action, solve as soon as the answer is known and spin otherwise
+				if (isIdentified(answer, guessed)) {
+					return money + SOLVE_BONUS;
+				}
+				action = (guessed & GuessSet.CONSONANTS) == GuessSet.CONSONANTS && money >= VOWEL_COST ? GuessChoice.BUYVOWEL : GuessChoice.GUESSLETTER;
+			}
+			
+			if (action == GuessChoice.BUYVOWEL) { // Buying a vowel never ends the turn
+				money -= VOWEL_COST;
+				guessed |= GuessSet.bit(nextLetter(guessed, GuessSet.VOWELS, random));
+				continue;
+			}
+			
+			SliceOdds.SliceEffect slice = odds.slices[odds.spin(random)];
+			money = slice.selected(money);
+			int letter = GuessSet.bit(nextLetter(guessed, (guessed & GuessSet.CONSONANTS) != GuessSet.CONSONANTS ? GuessSet.CONSONANTS : GuessSet.VOWELS, random));
+			guessed |= letter;
+			if ((answerMask & letter) == 0) { // A wrong letter ends the turn
+				return money;
+			}
+			money = slice.won(money);
+			if (slice.endsTurn) {
+				return money;
+			}
+		}
+		return money;
+	}
+	
+	/**
+	 * Checks if the answer is the only candidate that fits the guesses, going by which letters are in each phrase
+	 * @param answer The index in <code>candidateMasks</code> of the answer
+	 * @param guessed The <code>GuessSet</code> bits of the letters guessed so far
+	 * @return Whether there's no other candidate left, or the answer has no letters left to guess
+	 */
+	boolean isIdentified(int answer, int guessed) {
+		int seen = candidateMasks[answer] & guessed;
+		if ((candidateMasks[answer] & ~guessed) == 0) {
+			return true;
+		}
+		for (int i = 0; i < candidateMasks.length; i++) {
+			if (i != answer && (candidateMasks[i] & guessed) == seen) { // Stop at the first one that still fits
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Gets the next letter a rollout guesses
+	 * @param guessed The <code>GuessSet</code> bits of the letters guessed so far
+	 * @param mask The letters that can be picked
+	 * @param random The random object of this task
+	 * @return A random letter in the mask that hasn't been guessed if the player picks randomly, otherwise the first one in <code>letterOrder</code>. There has to be one.
+	 */
+	char nextLetter(int guessed, int mask, SplittableRandom random) {
+		int remaining = mask & ~guessed;
+		if (remaining == 0) {
+			throw new IllegalStateException("There are no letters left to guess");
+		}
+		if (randomLetters) {
+			for (int k = random.nextInt(Integer.bitCount(remaining)); k > 0; k--) { // Skip past a random number of the remaining letters
+				remaining &= remaining - 1;
+			}
+			return (char) ('a' + Integer.numberOfTrailingZeros(remaining));
+		}
+		for (char c : letterOrder) {
+			if ((remaining & GuessSet.bit(c)) != 0) {
+				return c;
+			}
+		}
+		return 0; // Every letter is in letterOrder, so this can't happen
+	}
+}
+
+/**
+ * The money each action ended with, added up over some rollouts
+ */
+class Tally {
+	/**
+	 * The total money from rollouts that started with a spin
+	 */
+	double spin = 0;
+	
+	/**
+	 * The total money from rollouts that started with buying a vowel
+	 */
+	double buyVowel = 0;
+	
+	/**
+	 * The number of rollouts played
+	 */
+	int rollouts = 0;
+	
+	/**
+	 * Adds another tally into this one
+	 * @param other The tally to add
+	 */
+	void add(Tally other) {
+		spin += other.spin;
+		buyVowel += other.buyVowel;
+		rollouts += other.rollouts;
+	}
+}
+
+/**
+ * Plays some rollouts, splitting into smaller tasks if there are a lot of them. Every task that splits hands a split-off random object to its new half.
+ */
+class RolloutTask extends RecursiveTask<Tally> {
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * The planner to play rollouts for
+	 */
+	final TurnPlanner planner;
+	
+	/**
+	 * How many rollouts to play
+	 */
+	final int rollouts;
+	
+	/**
+	 * The random object only this task uses
+	 */
+	final SplittableRandom random;
+	
+	/**
+	 * The <code>System.nanoTime()</code> to stop at
+	 */
+	final long deadline;
+	
+	/**
+	 * Constructs a new RolloutTask
+	 * @param planner The planner to play rollouts for
+	 * @param rollouts How many rollouts to play
+	 * @param random The random object for this task
+	 * @param deadline When to stop
+	 */
+	RolloutTask(TurnPlanner planner, int rollouts, SplittableRandom random, long deadline) {
+		this.planner = planner;
+		this.rollouts = rollouts;
+		this.random = random;
+		this.deadline = deadline;
+	}
+	
+	@Override
+	protected Tally compute() {
+		Tally tally = new Tally();
+		if (System.nanoTime() - deadline > 0) { // Out of time before starting
+			return tally;
+		}
+		if (rollouts > TurnPlanner.CHUNK_SIZE) { // Split in two and play both halves at once
+			RolloutTask second = new RolloutTask(planner, rollouts / 2, random.split(), deadline);
+			second.fork();
+			tally.add(new RolloutTask(planner, rollouts - rollouts / 2, random, deadline).compute());
+			tally.add(second.join());
+			return tally;
+		}
+		
+		for (int i = 0; i < rollouts; i++) {
+			if ((i & 15) == 0 && System.nanoTime() - deadline > 0) { // Out of time. Go with what's been played so far
+				break;
+			}
+			planner.rollout(random, tally);
+		}
+		return tally;
+	}
+}
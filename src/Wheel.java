@@ -1,6 +1,8 @@
-import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * Represents a physical Wheel. Contains an array of <code>Slice</code> objects and functions to select them.
@@ -12,63 +14,358 @@ public class Wheel {
 	public Slice[] slices;
 	
 	/**
-	 * The main Random object
+	 * Runs the frames of every spin animation
 	 */
-	static Random r;
+	static final ScheduledExecutorService spinExecutor = createSpinExecutor();
+	
+	/**
+	 * The layout of <code>slices</code>, built the first time it's needed and again whenever the slices change
+	 */
+	private WheelLayout layout;
+	
+	/**
+	 * Whether slices are picked by their <code>weight</code> instead of by how much of the wheel they take up. The animation still lands on the picked slice.
+	 */
+	public boolean weighted = false;
+	
+	/**
+	 * The alias table for the weights of the slices in <code>aliasLayout</code>. Only built for weighted wheels.
+	 */
+	private AliasTable aliasTable;
+	
+	/**
+	 * The layout <code>aliasTable</code> was built for
+	 */
+	private WheelLayout aliasLayout;
+	
+	/**
+	 * What the slices in <code>oddsLayout</code> do and how likely they are, for planning turns
+	 */
+	private SliceOdds odds;
+	
+	/**
+	 * The layout <code>odds</code> was built for
+	 */
+	private WheelLayout oddsLayout;
+	
+	/**
+	 * Whether the wheel was weighted when <code>odds</code> was built
+	 */
+	private boolean oddsWeighted;
+	
+	/**
+	 * How many frames per second to draw the spin animation at. This doesn't change how long the wheel spins for or where it lands.
+	 */
+	public int framesPerSecond = 30;
 	
 	/**
 	 * Spins the wheel and returns a <code>Slice</code> as a result
 	 * @param player The player who is spinning the wheel
-	 * @param in The main scanner
+	 * @param in The main input dispatcher
 	 * @param blocking Whether the spin should block execution or not
+	 * @param r The game's random object. <b>MUST BE THE SAME RANDOM OBJECT AS IS USED EVERYWHERE ELSE IN THE GAME!</b>
 	 * @return The Slice that has been spun
 	 */
-	public Slice spin(Player player, Scanner in, boolean blocking) {
-		if (r == null) {
-			r = Main.r;
-		}
-		
+	public Slice spin(Player player, InputDispatcher in, boolean blocking, Random r) {
 		if (blocking) { // When blocking, it prints and waits. When nonblocking, it shouldn't print or wait.
 			System.out.println("Spinning the wheel! (Press enter to skip)");
 			
-			// Create and start the 2 helper threads
-			WheelSpinThread spinThread = new WheelSpinThread(r, this);
-			WheelListenForKeyPressThread wheelListenForKeyPressThread = new WheelListenForKeyPressThread(in);
-			
-			spinThread.start();
-			wheelListenForKeyPressThread.start();
-			
-			// I couldn't figure out a better way to do this. If you read this and know a better way, can you let me know? Thanks
-			//noinspection LoopConditionNotUpdatedInsideLoop,StatementWithEmptyBody
-			while (spinThread.isAlive() && wheelListenForKeyPressThread.isAlive()) ;
-			
-			if (wheelListenForKeyPressThread.isAlive()) { // If the wheel spun until it stopped, stop listening for keypresses
-				wheelListenForKeyPressThread.stopRequested.set(true);
-			} else { // If a keypress happened, request that the wheel stop, then wait until it does.
-				spinThread.stopRequested.set(true);
-				try {
-					spinThread.join();
-				} catch (InterruptedException e) {
-					e.printStackTrace();
-				}
+			return spinAsync(in, r).join(); // Park until the wheel has stopped, whether it was skipped or not
+		} else { // Work out where it lands without animating it, then only draw where it stopped
+			WheelLayout layout = layout();
+			float position = landingPosition(layout, r);
+			WheelSpinTask.drawStrip(new TerminalRenderer(2, WheelLayout.WINDOW_WIDTH), layout, position);
+			return layout.slices[layout.pointerSliceIndex(position)];
+		}
+	}
+	
+	/**
+	 * Works out which slice a spin lands on without animating or printing it. This takes exactly the same random numbers and does exactly the same
+	 * maths as <code>WheelSpinTask</code>, so it always lands on the same slice the animated spin would have.
+	 * @param r The main random object. <b>MUST BE THE SAME RANDOM OBJECT AS IS USED EVERYWHERE ELSE!</b>
+	 * @return The Slice that has been spun
+	 */
+	Slice resolveSpin(Random r) {
+		WheelLayout layout = layout(); // Weighted spins are moved too, since where the wheel really stops is what counts if it couldn't be made to stop on the picked slice
+		return layout.slices[layout.pointerSliceIndex(landingPosition(layout, r))];
+	}
+	
+	/**
+	 * Works out the offset a spin comes to a stop at
+	 * @param layout The layout of this wheel
+	 * @param r The main random object
+	 * @return The offset the strip is drawn from when the wheel stops
+	 */
+	float landingPosition(WheelLayout layout, Random r) {
+		SpinPhysics physics = startSpin(layout, r);
+		physics.runToStop();
+		return physics.position();
+	}
+	
+	/**
+	 * Sets the wheel spinning. Normally the wheel starts at a random offset and speed.
+	 * When the wheel is weighted, a slice is picked with the alias table first, then the starting offset is worked backwards from where on that slice it should stop.
+	 * @param layout The layout of this wheel
+	 * @param r The main random object. <b>MUST BE THE SAME RANDOM OBJECT AS IS USED EVERYWHERE ELSE!</b>
+	 * @return The motion of the wheel, ready to step
+	 */
+	SpinPhysics startSpin(WheelLayout layout, Random r) {
+		AliasTable aliasTable = weighted ? aliasTable() : null;
+		if (aliasTable == null) { // Not weighted, or none of the slices with a weight can be landed on
+			return new SpinPhysics(r, layout.length);
+		}
+		
+		int slice = aliasTable.sample(r);
+		float speed = SpinPhysics.randomSpeed(r);
+		float target = layout.landingOffset(slice, r.nextFloat());
+		
+		SpinPhysics travel = new SpinPhysics(speed, 0, layout.length); // See how far the wheel goes at this speed, then start that far back from the target
+		travel.runToStop();
+		float offset = wrap(target - travel.offset, layout.length);
+		for (int attempt = 0; attempt < 8; attempt++) { // The float maths doesn't quite go backwards the same way it goes forwards, so check where it really stops
+			SpinPhysics check = new SpinPhysics(speed, offset, layout.length);
+			check.runToStop();
+			if (layout.pointerSliceIndex(check.position()) == slice) {
+				return new SpinPhysics(speed, offset, layout.length);
+			}
+			offset = wrap(offset + target - check.position(), layout.length); // Move the start by however far off it stopped
+		}
+		return new SpinPhysics(speed, offset, layout.length); // Go with wherever the last try stops instead of stopping the game. resolveSpin moves the wheel too, so it still agrees with the animation
+	}
+	
+	/**
+	 * Wraps an offset round so it's on the strip
+	 * @param offset The offset
+	 * @param length The length of the strip
+	 * @return The offset, between 0 and <code>length</code>
+	 */
+	static float wrap(float offset, int length) {
+		offset %= length;
+		return offset < 0 ? offset + length : offset;
+	}
+	
+	/**
+	 * Gets the alias table for the slices' weights, building it if the slices have changed since it was last built.
+	 * Slices the pointer can never stop on (ones too narrow for the strip) are left out, since a spin could never land on them.
+	 * @return The alias table for <code>slices</code>, or null if none of the slices that can be landed on have any weight
+	 */
+	AliasTable aliasTable() {
+		WheelLayout layout = layout();
+		if (aliasLayout != layout) {
+			double[] weights = new double[layout.slices.length];
+			double total = 0;
+			for (int i = 0; i < weights.length; i++) {
+				weights[i] = layout.landingWeight(i);
+				total += weights[i];
+			}
+			aliasTable = total > 0 ? new AliasTable(weights) : null;
+			aliasLayout = layout;
+		}
+		return aliasTable;
+	}
+	
+	/**
+	 * Works out how likely each slice is to be spun. An unweighted wheel starts at a random offset, so it stops at an even spread of offsets
+	 * and each slice's chance is how much of the strip puts it under the pointer. A weighted wheel goes by the weights of the slices it can land on.
+	 * @return The chance of each slice in <code>slices</code>, adding up to 1
+	 */
+	public double[] sliceChances() {
+		WheelLayout layout = layout();
+		double[] chances = new double[layout.slices.length];
+		if (weighted && aliasTable() != null) {
+			double total = 0;
+			for (int i = 0; i < chances.length; i++) {
+				total += layout.landingWeight(i);
+			}
+			for (int i = 0; i < chances.length; i++) {
+				chances[i] = layout.landingWeight(i) / total;
 			}
-			
-			return spinThread.selectedSlice; // Return the slice it landed on
 		} else {
-			WheelSpinThread spin = new WheelSpinThread(Main.r, this);
-			spin.stopRequested.set(true);
-			// Run the thread synchronously (IDEA doesn't like this call because calling .run() on a thread isn't asynchronous and not what most people want
-			//noinspection CallToThreadRun
-			spin.run();
-			return spin.selectedSlice; // Return the slice it landed on
+			int samples = layout.length * 4; // A few offsets per character, since the pointer doesn't only stop on whole offsets
+			for (int i = 0; i < samples; i++) {
+				chances[layout.pointerSliceIndex((i + 0.5f) / 4)] += 1.0 / samples;
+			}
+		}
+		return chances;
+	}
+	
+	/**
+	 * Gets what each slice does and how likely it is, building it if the slices have changed since it was last built
+	 * @return The odds of the current slices
+	 */
+	SliceOdds odds() {
+		WheelLayout layout = layout();
+		if (odds == null || oddsLayout != layout || oddsWeighted != weighted) {
+			odds = new SliceOdds(layout.slices, sliceChances());
+			oddsLayout = layout;
+			oddsWeighted = weighted;
+		}
+		return odds;
+	}
+	
+	/**
+	 * Starts spinning the wheel on the shared spin executor and returns straight away. Pressing enter skips to the end of the spin.
+	 * @param in The main input dispatcher
+	 * @param r The game's random object
+	 * @return A future that completes with the Slice that has been spun once the wheel stops
+	 */
+	public CompletableFuture<Slice> spinAsync(InputDispatcher in, Random r) {
+		// The next line of input asks the wheel to stop. If the wheel stops first, give the line back so it goes to whoever asks for input next
+		WheelSpinTask spinTask = new WheelSpinTask(r, this, spinExecutor);
+		Consumer<String> skip = line -> spinTask.requestStop();
+		
+		in.onNextLine(skip);
+		spinTask.result.whenComplete((slice, e) -> in.cancel(skip));
+		
+		spinExecutor.execute(spinTask);
+		
+		return spinTask.result;
+	}
+	
+	/**
+	 * Creates the executor that runs every wheel's spin animation. Drawing a frame only takes a moment, so a couple of threads can animate any number of wheels.
+	 * The threads are virtual threads when the JVM has them, and daemon threads otherwise so they never keep the game open.
+	 * @return A new scheduled executor with a fixed number of threads
+	 */
+	static ScheduledExecutorService createSpinExecutor() {
+		ThreadFactory threadFactory;
+		try { // Virtual threads only exist in newer versions of Java, so look them up by name
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "Wheel Spinner ", 0L);
+			threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			AtomicInteger threadCount = new AtomicInteger();
+			threadFactory = runnable -> {
+				Thread thread = new Thread(runnable, "Wheel Spinner " + threadCount.getAndIncrement());
+				thread.setDaemon(true);
+				return thread;
+			};
 		}
+		
+		return Executors.newScheduledThreadPool(2, threadFactory);
+	}
+	
+	/**
+	 * Gets the layout of the slices. It's only built again if the slices have changed since last time, so spinning the same wheel over and over doesn't rebuild the strip.
+	 * @return The layout of the current slices
+	 */
+	WheelLayout layout() {
+		if (layout == null || !layout.isLayoutOf(slices)) {
+			layout = new WheelLayout(slices);
+		}
+		return layout;
 	}
 }
 
 /**
- * The thread which spins the wheel.
+ * The motion of a spinning wheel. The wheel starts at a random offset and speed and slows down by the same amount every step until it stops.
  */
-class WheelSpinThread extends Thread {
+class SpinPhysics {
+	/**
+	 * How much the speed decreases each step (arbitrary value)
+	 */
+	static final float DECELERATION = 0.06f;
+	
+	/**
+	 * How long each step takes when the spin is animated, in nanoseconds
+	 */
+	static final long STEP_NANOS = 100_000_000L;
+	
+	/**
+	 * The length of the wheel strip
+	 */
+	final int length;
+	
+	/**
+	 * How far the wheel has turned, in characters. This isn't wrapped, use <code>position()</code> for that.
+	 */
+	float offset;
+	
+	/**
+	 * How many characters the wheel turns each step
+	 */
+	float speed;
+	
+	/**
+	 * Constructs a new SpinPhysics, taking the starting speed and offset from the random object (in that order)
+	 * @param r The main random object. <b>MUST BE THE SAME RANDOM OBJECT AS IS USED EVERYWHERE ELSE!</b>
+	 * @param length The length of the wheel strip
+	 */
+	SpinPhysics(Random r, int length) {
+		this.length = length;
+		speed = randomSpeed(r);
+		offset = r.nextFloat() * length;
+	}
+	
+	/**
+	 * Constructs a new SpinPhysics with a given starting speed and offset
+	 * @param speed How many characters the wheel turns in the first step
+	 * @param offset The offset to start at
+	 * @param length The length of the wheel strip
+	 */
+	SpinPhysics(float speed, float offset, int length) {
+		this.length = length;
+		this.speed = speed;
+		this.offset = offset;
+	}
+	
+	/**
+	 * Picks a random starting speed
+	 * @param r The main random object
+	 * @return A speed between 6 and 8
+	 */
+	static float randomSpeed(Random r) {
+		return r.nextFloat() * 2 + 6;
+	}
+	
+	/**
+	 * @return Whether the wheel is still moving
+	 */
+	boolean isSpinning() {
+		return speed >= 0;
+	}
+	
+	/**
+	 * Slows the wheel down, then moves it by its new speed
+	 */
+	void step() {
+		speed -= DECELERATION;
+		offset += speed;
+	}
+	
+	/**
+	 * Steps the wheel until it stops. The float maths has to be done one step at a time (rather than summing the series) to land on
+	 * exactly the same offset as the animation does.
+	 */
+	void runToStop() {
+		while (speed >= 0) {
+			step();
+		}
+	}
+	
+	/**
+	 * @return The offset to draw the strip from
+	 */
+	float position() {
+		return offset % length;
+	}
+	
+	/**
+	 * Works out where the wheel is part way between this step and the next one. Only used for drawing, the wheel still only stops on whole steps.
+	 * @param progress How far through the step we are, between 0 and 1
+	 * @return The offset to draw the strip from
+	 */
+	float positionBetweenSteps(float progress) {
+		return (offset + (speed - DECELERATION) * progress) % length;
+	}
+}
+
+/**
+ * The task which spins the wheel. Each run of the task draws one frame of the animation and then schedules the next one,
+ * so a spinning wheel only holds onto a thread while it is actually drawing.
+ */
+class WheelSpinTask implements Runnable {
 	/**
 	 * The main random object
 	 */
@@ -79,216 +376,181 @@ class WheelSpinThread extends Thread {
 	 */
 	Wheel wheel;
 	
+	/**
+	 * The executor that runs each frame
+	 */
+	ScheduledExecutorService executor;
+	
 	/**
 	 * The slice it started on
 	 */
 	public Slice selectedSlice = null;
 	
 	/**
-	 * The generated wheel text
+	 * The layout of the wheel being spun
+	 */
+	WheelLayout layout;
+	
+	/**
+	 * The motion of the wheel. Null until the first frame.
+	 */
+	SpinPhysics physics;
+	
+	/**
+	 * Draws the wheel to the terminal. It only redraws the parts of the wheel that moved.
+	 */
+	TerminalRenderer renderer = new TerminalRenderer(2, WheelLayout.WINDOW_WIDTH);
+	
+	/**
+	 * When the spin started, from <code>System.nanoTime()</code>
+	 */
+	long start;
+	
+	/**
+	 * The number of physics steps taken so far
+	 */
+	long steps = 0;
+	
+	/**
+	 * The number of frames drawn (or skipped) so far
+	 */
+	long frames = 0;
+	
+	/**
+	 * The next frame, so it can be cancelled when the wheel stops early
+	 */
+	ScheduledFuture<?> nextFrame;
+	
+	/**
+	 * Completes with the selected slice when the wheel comes to a stop
 	 */
-	String[] wheelText;
+	public final CompletableFuture<Slice> result = new CompletableFuture<>();
 	
 	/**
-	 * The Atomic Boolean which indicates if the thread should stop spinning
+	 * The Atomic Boolean which indicates if the wheel should stop spinning
 	 */
 	public AtomicBoolean stopRequested = new AtomicBoolean(false);
 	
 	/**
-	 * Constructs a new WheelSpinThread
+	 * Constructs a new WheelSpinTask
 	 * @param r The main random object. <b>MUST BE THE SAME RANDOM OBJECT AS IS USED EVERYWHERE ELSE!</b> Using a new random object WILL result in a client desync.
 	 * @param w The wheel to spin
+	 * @param executor The executor to run each frame on
 	 */
-	public WheelSpinThread(Random r, Wheel w) {
+	public WheelSpinTask(Random r, Wheel w, ScheduledExecutorService executor) {
 		this.r = r;
 		wheel = w;
+		this.executor = executor;
 	}
 	
 	/**
-	 * Runs the thread. Starts to spin the wheel until it either comes to a stop or stopRequested is set to true.
+	 * Draws the next frame of the spin, then schedules the one after it. When the wheel stops (or a stop is requested) it draws the final frame and completes <code>result</code>.
+	 * This is synchronized because a skip runs the task straight away, which could overlap with a frame that was already scheduled.
 	 */
 	@Override
-	public void run() {
-		wheelText = wheelAsString(); // Generate the wheel text and start at a random position and speed
-		float speed = r.nextFloat() * 2 + 6;
-		float i;
-		for (i = r.nextFloat() * wheelText[0].length(); speed >= 0; i += speed) {
-			drawWheelWithOffset(i % wheelText[0].length()); // Draw the wheel
-			if(!stopRequested.get()) System.out.print("\u001b[1000D\u001b[2A"); // Move the cursor up 2 and all the way to the left
-			speed -= 0.06f; // Decrease the speed by 0.06 each time (arbitrary value)
-			try {
-				if (!stopRequested.get()) { // Don't sleep if a stop has been requested
-					sleep(100);
-				}
-			} catch (InterruptedException e) {
-				e.printStackTrace();
-			}
+	public synchronized void run() {
+		if (result.isDone()) { // A frame that was scheduled before a skip can still turn up after the wheel has stopped
+			return;
 		}
-		stopRequested.set(false); // drawWheelWithOffset doesn't output when stopRequested is true
-		drawWheelWithOffset(i % wheelText[0].length()); // Draw the wheel 1 final time
-	}
-	
-	/**
-	 * Draws the wheel object at a given offset
-	 * @param offset The offset to draw the wheel from
-	 */
-	void drawWheelWithOffset(float offset) {
-		String text = wheelText[0];
-		
-		int width = 31;
 		
-		String endString = "";
-		
-		// This is a lot of code that just places selects the correct slice and positions the string correctly. BOOOORING
-		if ((int) offset + width >= text.length()) {
-			if (!stopRequested.get()) { // This isn't required when stopRequested is true because the string won't be printed
-				endString = text.substring((int) offset) + text.substring(0, (int) (offset + width) % text.length());
-			}
-			if (offset + (width / (float) 2) >= text.length()) { // Loop over when we hit the end
-				selectedSlice = wheel.slices[countCharacterInString(text.substring(0, (int) (offset + width) % text.length()), '|')];
-			} else {
-				selectedSlice = wheel.slices[countCharacterInString(text.substring(0, (int) (offset + (width / 2))), '|') % wheel.slices.length];
+		try {
+			if (physics == null) {
+				layout = wheel.layout(); // Lay out the wheel once and start at a random position and speed
+				physics = wheel.startSpin(layout, r);
+				start = System.nanoTime();
 			}
-		} else {
-			if (!stopRequested.get()) {
-				endString = text.substring((int) offset, (int) offset + width);
-			}
-			selectedSlice = wheel.slices[countCharacterInString(text.substring(0, (int) (offset + (width / 2))), '|')];
-		}
-		
-		// Print everything to the screen (only if stopRequested is false)
-		// This bit isn't coded very well. Proceed with caution.
-		if (!stopRequested.get()) {
-			int secondPipe = endString.lastIndexOf('|'); // Locate the first and second pipe symbols (which conveniently mark the edge of each slice)
-			int firstPipe = endString.indexOf('|');
-			
-			StringBuilder output = new StringBuilder();
-			output.append(endString);
-			
-			// Count how many pipes are before the current offset. That will tell us which slice we're on
-			int locationInArray = countCharacterInString(text.substring(0, (int) (offset) % text.length()), '|') % wheel.slices.length;
-			
-			// Figure out the colours of each slice (even ones potentially not in view)
-			String firstColour = wheel.slices[locationInArray].colour;
-			String secondColour = wheel.slices[(locationInArray + 1) % wheel.slices.length].colour;
-			String thirdColour = wheel.slices[(locationInArray + 2) % wheel.slices.length].colour;
 			
-			if (secondPipe != firstPipe) { // secondPipe will be equal to firstPipe if there is only 1 pipe in the string
-				output.insert(secondPipe, thirdColour); // There are 3 colours on screen, so insert the 3rd colour
+			if (drawFrame()) {
+				return;
 			}
 			
-			// There will always be at least 1 pipe in the string section, so put the colours where they should be
-			output.insert(firstPipe, secondColour);
-			output.insert(0, firstColour);
-			
-			output.append(Main.Reset); // Reset the colouring at the end
-			
-			System.out.println(output); // Print the output and the pointer
-			
-			System.out.print(String.join("", Collections.nCopies(width / 2, " ")));
-			System.out.println("^");
+			physics.runToStop(); // If a stop was requested, skip straight to the end
+			drawWheelWithOffset(physics.position()); // Draw the wheel 1 final time
+			if (nextFrame != null) {
+				nextFrame.cancel(false);
+			}
+			result.complete(selectedSlice);
+		} catch (Throwable e) {
+			e.printStackTrace();
+			result.completeExceptionally(e); // Don't leave anybody waiting on a wheel that will never stop
 		}
 	}
 	
 	/**
-	 * Counts the number of occurrences of a certain character in a String.
-	 * @param s The string to check
-	 * @param c The character to count
-	 * @return The number of occurrences of the character
+	 * Asks the wheel to stop. The spin jumps straight to where it would have stopped instead of waiting for the next frame.
 	 */
-	int countCharacterInString(String s, char c) {
-		int count = 0;
-		for (int i = 0; i < s.length(); i++) {
-			if (s.charAt(i) == c) {
-				count++;
-			}
-		}
-		return count;
+	public void requestStop() {
+		stopRequested.set(true);
+		executor.execute(this); // Don't wait for the next frame
 	}
 	
 	/**
-	 * Converts the Wheel object into a String, [0] is the colourless string and [1] is the coloured string
-	 * @return An array of strings. [0] is the colourless string and [1] is the coloured string
+	 * Draws one frame and schedules the next one.
+	 * The physics steps on a fixed 100ms tick no matter the frame rate, and each frame is drawn part way between two steps so the animation stays smooth.
+	 * @return Whether the wheel is still spinning. If it's false, nothing was drawn or scheduled.
 	 */
-	String[] wheelAsString() {
-		int longest = longestNameLength() + 2;
+	boolean drawFrame() {
+		if (stopRequested.get()) {
+			return false;
+		}
 		
-		StringBuilder string = new StringBuilder();
-		StringBuilder colouredString = new StringBuilder();
+		long elapsed = System.nanoTime() - start;
 		
-		for (int i = 0; i < wheel.slices.length; i++) { // For each wheel slice, centre it correctly with spaces then add it to the string.
-			String text = wheel.slices[i].text;
-			int longestMinusText = longest - text.length() / 2 - 1;
-			int longestMinusTextPlus = longest - text.length() / 2 + text.length() % 2 - 1;
-			
-			string.append(String.join("", Collections.nCopies(longestMinusText, " "))); // Centre it correctly
-			string.append(wheel.slices[i].text);
-			string.append(String.join("", Collections.nCopies(longestMinusTextPlus, " "))); // Centre it correctly
-			string.append("|");
-			string.append('\0'); // I thought I might need a null character. Pipe worked instead. I'm not removing it
-			
-			colouredString.append(wheel.slices[i].colour); // Also append colour for the coloured string
-			colouredString.append(String.join("", Collections.nCopies(longestMinusText, " ")));
-			colouredString.append(wheel.slices[i].text);
-			colouredString.append(String.join("", Collections.nCopies(longestMinusTextPlus, " ")));
-			colouredString.append("|");
-			colouredString.append('\0');
+		while (steps < elapsed / SpinPhysics.STEP_NANOS && physics.isSpinning()) { // Catch the physics up to the current time
+			physics.step();
+			steps++;
+		}
+		if (!physics.isSpinning()) {
+			return false;
 		}
 		
-		return new String[] { string.toString(), colouredString.toString() };
-	}
-	
-	/**
-	 * Finds the longest slice text and returns its length
-	 * @return The length of the longest slice's name
-	 */
-	int longestNameLength() {
-		int longest = 0;
-		for (Slice slice : wheel.slices) {
-			if (slice.text.length() > longest) {
-				longest = slice.text.length();
-			}
+		drawWheelWithOffset(physics.positionBetweenSteps((elapsed - steps * SpinPhysics.STEP_NANOS) / (float) SpinPhysics.STEP_NANOS)); // Draw the wheel
+		
+		long frameNanos = 1_000_000_000L / Math.max(1, wheel.framesPerSecond);
+		frames++;
+		long nextFrameTime; // Keep to a fixed rate, and skip frames if drawing has fallen behind
+		while ((nextFrameTime = start + frames * frameNanos) <= System.nanoTime()) {
+			frames++;
 		}
-		return longest;
+		nextFrame = executor.schedule(this, nextFrameTime - System.nanoTime(), TimeUnit.NANOSECONDS);
+		return true;
 	}
-}
-
-/**
- * The thread which watches out for an enter keypress. Stops when either the enter key is pressed or the stopRequested boolean is set to true
- */
-class WheelListenForKeyPressThread extends Thread {
-	Scanner in;
-	public AtomicBoolean stopRequested = new AtomicBoolean(false);
 	
 	/**
-	 * Constructs a new WheelListenForKeyPressThread
-	 * @param in The main scanner
+	 * Draws the wheel object at a given offset
+	 * @param offset The offset to draw the wheel from
 	 */
-	public WheelListenForKeyPressThread(Scanner in) {
-		this.in = in;
+	void drawWheelWithOffset(float offset) {
+		selectedSlice = layout.slices[layout.pointerSliceIndex(offset)]; // The layout knows which slice is under the pointer
+		drawStrip(renderer, layout, offset);
 	}
 	
 	/**
-	 * Runs the thread until either the user hits enter or the stopRequested boolean is set to true
+	 * Draws a wheel strip at a given offset, followed by the pointer
+	 * @param renderer The renderer to draw with
+	 * @param layout The layout of the wheel to draw
+	 * @param offset The offset to draw the wheel from
 	 */
-	@Override
-	public void run() {
-		while (!stopRequested.get()) {
-			try {
-				sleep(100); // Only bother checking every 100 milliseconds. A 100ms delay is nothing.
-			} catch (InterruptedException e) {
-				e.printStackTrace();
-				return;
-			}
-			try {
-				if (System.in.available() != 0) { // Check if there is a new line. This is the only non-blocking way of doing so.
-					in.nextLine(); // It's important not to block because we need to check if stopRequested is true frequently.
-					return;
-				}
-			} catch (IOException e) {
-				e.printStackTrace();
-				return;
+	static void drawStrip(TerminalRenderer renderer, WheelLayout layout, float offset) {
+		int width = WheelLayout.WINDOW_WIDTH;
+		
+		int column = 0;
+		for (int i = (int) offset; i < (int) offset + width; i++) {
+			int charOffset = i % layout.length;
+			char c = layout.chars[charOffset];
+			if (c == '\0') { // Terminals don't draw null characters, so they don't take up a cell
+				continue;
 			}
+			renderer.set(0, column++, c, layout.colours[charOffset]);
+		}
+		while (column < width) {
+			renderer.set(0, column++, ' ', null);
+		}
+		
+		for (int i = 0; i < width; i++) { // The pointer never moves, so after the first frame this row never gets redrawn
+			renderer.set(1, i, i == width / 2 ? '^' : ' ', null);
 		}
+		
+		renderer.present();
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,199 @@
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * An immutable index of a wheel's text strip. Built once from an array of <code>Slice</code> objects so that finding which slice
+ * is under the pointer (or at any other position on the strip) is a single array lookup instead of a substring and a count.
+ */
+public final class WheelLayout {
+	/**
+	 * The number of characters of the strip that are visible at once
+	 */
+	static final int WINDOW_WIDTH = 31;
+	
+	/**
+	 * The slices this layout was built from
+	 */
+	final Slice[] slices;
+	
+	/**
+	 * The colourless wheel strip. Each slice is centred with spaces and followed by a pipe and a null character.
+	 */
+	final String text;
+	
+	/**
+	 * The length of <code>text</code>
+	 */
+	final int length;
+	
+	/**
+	 * The characters of <code>text</code>, so drawing a frame doesn't go through <code>charAt</code>
+	 */
+	final char[] chars;
+	
+	/**
+	 * The colour code of each character of <code>text</code>. Each pipe is coloured like the slice after it, which is the slice of the next character.
+	 */
+	final String[] colours;
+	
+	/**
+	 * The number of pipes before each offset of <code>text</code>. <code>pipesBefore[i]</code> is the number of pipes in <code>text.substring(0, i)</code>,
+	 * which is also the index of the slice that character <code>i</code> belongs to. It has <code>length + 1</code> entries.
+	 */
+	final int[] pipesBefore;
+	
+	/**
+	 * For each slice, the first offset of the longest run of whole offsets that put that slice under the pointer
+	 */
+	final int[] landingStarts;
+	
+	/**
+	 * For each slice, how many whole offsets long the run starting at <code>landingStarts</code> is. 0 if the slice can never be under the pointer.
+	 * Offsets where the slice under the pointer changes part way through (like where <code>pointerSliceIndex</code> wraps round) aren't in any run.
+	 */
+	final int[] landingLengths;
+	
+	/**
+	 * Constructs a new WheelLayout
+	 * @param slices The slices to lay out, in order
+	 */
+	public WheelLayout(Slice[] slices) {
+		this.slices = slices.clone(); // Take a copy so changing the wheel's array can't change the layout underneath it
+		
+		int longest = longestNameLength(slices) + 2;
+		
+		StringBuilder string = new StringBuilder();
+		
+		for (int i = 0; i < slices.length; i++) { // For each wheel slice, centre it correctly with spaces then add it to the string.
+			String sliceText = slices[i].text;
+			int longestMinusText = longest - sliceText.length() / 2 - 1;
+			int longestMinusTextPlus = longest - sliceText.length() / 2 + sliceText.length() % 2 - 1;
+			
+			string.append(String.join("", Collections.nCopies(longestMinusText, " "))); // Centre it correctly
+			string.append(sliceText);
+			string.append(String.join("", Collections.nCopies(longestMinusTextPlus, " "))); // Centre it correctly
+			string.append("|");
+			string.append('\0'); // I thought I might need a null character. Pipe worked instead. I'm not removing it
+		}
+		
+		text = string.toString();
+		length = text.length();
+		
+		pipesBefore = new int[length + 1]; // Count the pipes once so nobody has to count them again
+		for (int i = 0; i < length; i++) {
+			pipesBefore[i + 1] = pipesBefore[i] + (text.charAt(i) == '|' ? 1 : 0);
+		}
+		
+		chars = text.toCharArray();
+		colours = new String[length];
+		for (int i = 0; i < length; i++) {
+			colours[i] = slices[sliceIndexAt(i + 1)].colour;
+		}
+		
+		landingStarts = new int[slices.length];
+		landingLengths = new int[slices.length];
+		int runStart = 0;
+		int runSlice = -1; // The slice of the run so far, or -1 if the offset at runStart is no good for landing on
+		for (int i = 0; i <= length; i++) { // Find the longest run of offsets for each slice
+			int slice = i < length ? steadySliceIndex(i) : -1;
+			if (i == length || slice != runSlice) {
+				if (runSlice >= 0 && i - runStart > landingLengths[runSlice]) {
+					landingStarts[runSlice] = runStart;
+					landingLengths[runSlice] = i - runStart;
+				}
+				runStart = i;
+				runSlice = slice;
+			}
+		}
+	}
+	
+	/**
+	 * Finds the slice that is under the pointer when the strip is drawn from a given offset.
+	 * This has to match the old substring-and-count logic exactly (including its odd wrap-around case) or clients will desync.
+	 * @param offset The offset the strip is drawn from, between 0 and <code>length</code>
+	 * @return The index of the slice under the pointer
+	 */
+	int pointerSliceIndex(float offset) {
+		if ((int) offset + WINDOW_WIDTH >= length) {
+			if (offset + (WINDOW_WIDTH / (float) 2) >= length) { // Loop over when we hit the end
+				return pipesBefore[(int) (offset + WINDOW_WIDTH) % length];
+			} else {
+				return pipesBefore[(int) (offset + (WINDOW_WIDTH / 2))] % slices.length;
+			}
+		} else {
+			return pipesBefore[(int) (offset + (WINDOW_WIDTH / 2))];
+		}
+	}
+	
+	/**
+	 * Finds the slice under the pointer all the way across a whole offset
+	 * @param offset The whole offset
+	 * @return The index of the slice, or -1 if it changes somewhere between <code>offset</code> and <code>offset + 1</code>
+	 */
+	int steadySliceIndex(int offset) {
+		int slice = pointerSliceIndex(offset);
+		float next = Math.nextDown((float) (offset + 1));
+		for (float f = offset + 0.25f; f < next; f += 0.25f) { // The pointer logic only changes at whole and half offsets, so quarters catch every change
+			if (pointerSliceIndex(f) != slice) {
+				return -1;
+			}
+		}
+		return pointerSliceIndex(next) == slice ? slice : -1;
+	}
+	
+	/**
+	 * Gets the weight a weighted spin should give a slice
+	 * @param slice The index of the slice
+	 * @return The slice's weight, or 0 if the pointer can never stop on it
+	 */
+	double landingWeight(int slice) {
+		return landingLengths[slice] == 0 ? 0 : slices[slice].weight;
+	}
+	
+	/**
+	 * Picks an offset that puts a slice under the pointer. It's always in the middle of a whole offset that's entirely on the slice,
+	 * so rounding errors can't tip it into the next slice or over to the other side of the wrap round.
+	 * @param slice The index of the slice to land on
+	 * @param progress Where in the slice to land, between 0 and 1
+	 * @return The offset to draw the strip from
+	 */
+	float landingOffset(int slice, float progress) {
+		if (landingLengths[slice] == 0) {
+			throw new IllegalArgumentException("The wheel can never land on slice " + slice);
+		}
+		return landingStarts[slice] + Math.min((int) (progress * landingLengths[slice]), landingLengths[slice] - 1) + 0.5f;
+	}
+	
+	/**
+	 * Finds the slice a given character of the strip belongs to
+	 * @param charOffset The offset of the character. Wraps around if it is past the end of the strip.
+	 * @return The index of the slice
+	 */
+	int sliceIndexAt(int charOffset) {
+		return pipesBefore[charOffset % length] % slices.length;
+	}
+	
+	/**
+	 * Checks if this layout was built from the same slices, in the same order, as a wheel has now
+	 * @param slices The wheel's slices
+	 * @return Whether the layout can still be used for them
+	 */
+	boolean isLayoutOf(Slice[] slices) {
+		return Arrays.equals(this.slices, slices);
+	}
+	
+	/**
+	 * Finds the longest slice text and returns its length
+	 * @param slices The slices to check
+	 * @return The length of the longest slice's name
+	 */
+	static int longestNameLength(Slice[] slices) {
+		int longest = 0;
+		for (Slice slice : slices) {
+			if (slice.text.length() > longest) {
+				longest = slice.text.length();
+			}
+		}
+		return longest;
+	}
+}